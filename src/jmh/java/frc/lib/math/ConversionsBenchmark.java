@@ -0,0 +1,45 @@
+package frc.lib.math;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.robot.Constants;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionsBenchmark {
+    private double value = 12.3;
+
+    @Benchmark
+    public double RPSToMPS() {
+        return Conversions.RPSToMPS(value, Constants.Swerve.wheelCircumference);
+    }
+
+    @Benchmark
+    public double MPSToRPS() {
+        return Conversions.MPSToRPS(value, Constants.Swerve.wheelCircumference);
+    }
+
+    @Benchmark
+    public double rotationsToMeters() {
+        return Conversions.rotationsToMeters(value, Constants.Swerve.wheelCircumference);
+    }
+
+    @Benchmark
+    public double metersToRotations() {
+        return Conversions.metersToRotations(value, Constants.Swerve.wheelCircumference);
+    }
+}
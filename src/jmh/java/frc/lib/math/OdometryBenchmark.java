@@ -0,0 +1,82 @@
+package frc.lib.math;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import frc.robot.Constants;
+
+/** One odometry thread sample and one delayed pose measurement, as fed through LatencyCompensatedPoseEstimator. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OdometryBenchmark {
+    private static final double samplePeriod = 1.0 / Constants.Swerve.odometryFrequency;
+
+    private final SwerveModulePosition[] positions = new SwerveModulePosition[Constants.Swerve.modules.length];
+    private final LatencyCompensatedPoseEstimator estimator;
+    private final Pose2d measurement = new Pose2d(1.0, 0.5, Rotation2d.fromDegrees(10.0));
+    private double time = 0.0;
+    private double yawRadians = 0.0;
+
+    public OdometryBenchmark() {
+        for(int i = 0; i < positions.length; i++){
+            positions[i] = new SwerveModulePosition(0.0, Rotation2d.fromDegrees(30.0));
+        }
+        estimator = new LatencyCompensatedPoseEstimator(
+            Constants.Swerve.moduleTranslations, new Rotation2d(), positions, new Pose2d(),
+            (int) Math.ceil(Constants.Swerve.poseHistorySeconds * Constants.Swerve.odometryFrequency),
+            Constants.Swerve.stateStdDevs, Constants.Swerve.measurementStdDevs);
+
+        estimator.getOdometry().setSlipRejection(
+            Constants.SlipDetection.enabled, Constants.SlipDetection.speedTolerance, Constants.SlipDetection.relativeTolerance);
+
+        /* Fill the history so measurements search a full buffer */
+        for(int i = 0; i < Constants.Swerve.poseHistorySeconds * Constants.Swerve.odometryFrequency; i++){
+            update();
+        }
+    }
+
+    /** One odometry thread sample */
+    @Benchmark
+    public Pose2d update() {
+        time += samplePeriod;
+        yawRadians += 0.002;
+        for(SwerveModulePosition position : positions){
+            position.distanceMeters += 0.01;
+        }
+        return estimator.update(time, new Rotation2d(yawRadians), positions);
+    }
+
+    /** One odometry thread sample with the first module slipping, so it is down-weighted */
+    @Benchmark
+    public Pose2d updateSlipping() {
+        time += samplePeriod;
+        yawRadians += 0.002;
+        for(SwerveModulePosition position : positions){
+            position.distanceMeters += 0.01;
+        }
+        positions[0].distanceMeters += 0.02;
+        return estimator.update(time, new Rotation2d(yawRadians), positions);
+    }
+
+    /** A measurement captured 100 ms ago */
+    @Benchmark
+    public boolean addMeasurement() {
+        return estimator.addMeasurement(measurement, time - 0.1);
+    }
+}
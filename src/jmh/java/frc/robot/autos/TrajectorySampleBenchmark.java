@@ -0,0 +1,82 @@
+package frc.robot.autos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+import frc.lib.util.MappedTrajectory;
+
+/**
+ * Sampling the exampleAuto trajectory, as SwerveControllerCommand does every loop, and generating it.
+ * The same trajectory is also baked to a file and sampled and loaded through MappedTrajectory, as on the robot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectorySampleBenchmark {
+    private final Trajectory trajectory = exampleAuto.generateTrajectory();
+    private Path bakedFile;
+    private MappedTrajectory mappedTrajectory;
+    private double time = 0.0;
+    private double mappedTime = 0.0;
+
+    @Setup
+    public void bake() throws IOException {
+        bakedFile = Files.createTempFile("exampleAuto", ".traj");
+        MappedTrajectory.write(trajectory, bakedFile);
+        mappedTrajectory = MappedTrajectory.load(bakedFile);
+    }
+
+    @TearDown
+    public void deleteBaked() throws IOException {
+        Files.deleteIfExists(bakedFile);
+    }
+
+    @Benchmark
+    public Trajectory.State sample() {
+        time += 0.02;
+        if(time > trajectory.getTotalTimeSeconds()){
+            time = 0.0;
+        }
+        return trajectory.sample(time);
+    }
+
+    @Benchmark
+    public Trajectory.State sampleMapped() {
+        mappedTime += 0.02;
+        if(mappedTime > mappedTrajectory.getTotalTimeSeconds()){
+            mappedTime = 0.0;
+        }
+        return mappedTrajectory.sample(mappedTime);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Trajectory generate() {
+        return exampleAuto.generateTrajectory();
+    }
+
+    /** Loading the baked trajectory instead of generating it */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Trajectory load() throws IOException {
+        return MappedTrajectory.load(bakedFile);
+    }
+}
@@ -0,0 +1,186 @@
+package frc.robot.subsystems;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.lib.math.PrimitiveSwerveKinematics;
+import frc.lib.util.SwerveModuleConstants;
+import frc.robot.Constants;
+import frc.robot.SwerveModule;
+import frc.robot.io.GyroIO;
+import frc.robot.io.ModuleIO;
+
+/**
+ * Swerve.drive, Swerve.setModuleStates and SwerveModule.setDesiredState on the real subsystem, with
+ * no-op IOs standing in for the hardware. The IOs only keep the last outputs they are given.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwerveDriveBenchmark {
+    private final int moduleCount = Constants.Swerve.modules.length;
+    private final PrimitiveSwerveKinematics kinematics = new PrimitiveSwerveKinematics(Constants.Swerve.moduleTranslations);
+    private final SwerveModuleState[] autoStates = new SwerveModuleState[moduleCount];
+    private final double[] measuredSpeeds = new double[moduleCount];
+    private final double[] measuredAngles = new double[moduleCount];
+    private final Rotation2d heading = Rotation2d.fromDegrees(37.0);
+
+    private Swerve swerve;
+
+    private double xSpeed = 2.0;
+    private double ySpeed = 1.0;
+    private double rotation = 3.0;
+
+    /* Reports a fixed module angle, and a new absolute reading that agrees with it every loop so the module seeds */
+    private static class NoOpModuleIO implements ModuleIO {
+        private final double angleRotations;
+        private final double angleOffsetRotations;
+        private double absoluteTimestamp = 0.0;
+
+        /* Last outputs, kept so the commands are not dead code */
+        double angleSetpointRotations;
+        double driveOutput;
+        double driveFeedforwardVolts;
+
+        NoOpModuleIO(SwerveModuleConstants moduleConstants, double angleRotations) {
+            this.angleRotations = angleRotations;
+            angleOffsetRotations = moduleConstants.angleOffset.getRotations();
+        }
+
+        @Override
+        public void updateInputs(ModuleIOInputs inputs, double nowSeconds) {
+            inputs.anglePositionRotations = angleRotations;
+            inputs.absolutePositionRotations = angleRotations + angleOffsetRotations;
+            inputs.absolutePositionValid = true;
+            absoluteTimestamp += 0.02;
+            inputs.absolutePositionTimestampSeconds = absoluteTimestamp;
+            inputs.odometrySampleCount = 0;
+        }
+
+        @Override
+        public void setAnglePosition(double rotations) {
+            angleSetpointRotations = rotations;
+        }
+
+        @Override
+        public void setDriveDutyCycle(double output) {
+            driveOutput = output;
+        }
+
+        @Override
+        public void setDriveVelocity(double rotationsPerSecond, double feedforwardVolts) {
+            driveOutput = rotationsPerSecond;
+            driveFeedforwardVolts = feedforwardVolts;
+        }
+
+        @Override
+        public void setNeutral() {
+            driveOutput = 0.0;
+            driveFeedforwardVolts = 0.0;
+        }
+
+        @Override
+        public void resetAnglePosition(double rotations) {}
+    }
+
+    private static class NoOpGyroIO implements GyroIO {
+        @Override
+        public void updateInputs(GyroIOInputs inputs, double nowSeconds) {
+            inputs.odometrySampleCount = 0;
+        }
+    }
+
+    @Setup
+    public void createSwerve() {
+        /* The subsystem registers with the scheduler and reads FPGA time */
+        HAL.initialize(500, 0);
+
+        ModuleIO[] moduleIOs = new ModuleIO[moduleCount];
+        for(int i = 0; i < moduleCount; i++){
+            /* Spread the module angles so some desired states are reversed by optimization */
+            moduleIOs[i] = new NoOpModuleIO(Constants.Swerve.modules[i], 0.1 + 0.3 * i);
+            autoStates[i] = new SwerveModuleState(2.0 + i, Rotation2d.fromDegrees(45.0 * i));
+            measuredSpeeds[i] = 1.0 + 0.1 * i;
+            measuredAngles[i] = 0.1 + 2.1 * i;
+        }
+        swerve = new Swerve(new NoOpGyroIO(), moduleIOs);
+
+        /* Modules ignore desired states until they are seeded */
+        for(int i = 0; i <= Constants.Seeding.requiredSamples; i++){
+            swerve.periodic();
+        }
+        for(SwerveModule mod : swerve.mSwerveMods){
+            if(!mod.isSeeded()){
+                throw new IllegalStateException("Mod " + mod.moduleNumber + " did not seed");
+            }
+        }
+    }
+
+    /** Swerve.drive(double, double, double, ...) in closed loop, as TeleopSwerve calls it */
+    @Benchmark
+    public void drive() {
+        swerve.drive(xSpeed, ySpeed, rotation, true, false);
+    }
+
+    @Benchmark
+    public void driveOpenLoop() {
+        swerve.drive(xSpeed, ySpeed, rotation, true, true);
+    }
+
+    /** The WPILib object based drive path that Swerve.drive used before, into the same modules, for comparison */
+    @Benchmark
+    public void driveWithObjects() {
+        SwerveModuleState[] states = Constants.Swerve.swerveKinematics.toSwerveModuleStates(
+            ChassisSpeeds.fromFieldRelativeSpeeds(xSpeed, ySpeed, rotation, heading));
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, Constants.Swerve.maxSpeed);
+        for(SwerveModule mod : swerve.mSwerveMods){
+            mod.setDesiredState(states[mod.moduleNumber], false);
+        }
+    }
+
+    /** Swerve.setModuleStates, as called by SwerveControllerCommand */
+    @Benchmark
+    public void setModuleStates() {
+        swerve.setModuleStates(autoStates);
+    }
+
+    /** SwerveModule.setDesiredState(double, double, boolean) of one module in closed loop */
+    @Benchmark
+    public void setDesiredState() {
+        swerve.mSwerveMods[0].setDesiredState(2.0, 2.5, false);
+    }
+
+    /** Primitive forward kinematics, as used by the drivetrain simulations */
+    @Benchmark
+    public void toChassisSpeeds(Blackhole bh) {
+        kinematics.toChassisSpeeds(measuredSpeeds, measuredAngles);
+        bh.consume(kinematics.vxMetersPerSecond);
+        bh.consume(kinematics.vyMetersPerSecond);
+        bh.consume(kinematics.omegaRadiansPerSecond);
+    }
+
+    /** WPILib forward kinematics, for comparison */
+    @Benchmark
+    public ChassisSpeeds toChassisSpeedsWithObjects() {
+        return Constants.Swerve.swerveKinematics.toChassisSpeeds(autoStates);
+    }
+}
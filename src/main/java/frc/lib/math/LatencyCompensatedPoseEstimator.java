@@ -0,0 +1,273 @@
+package frc.lib.math;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+/**
+ * Swerve pose estimator that accepts delayed pose measurements.
+ *
+ * <p>Wheel odometry is integrated on its own by {@link RobustSwerveOdometry} and every odometry pose is kept in a bounded,
+ * time indexed history. The estimate is the odometry pose composed with a field-from-odometry
+ * offset. A measurement rewinds to its capture time by interpolating the history, corrects the
+ * estimate at that time, and replays forward by re-deriving the offset, since the odometry motion
+ * after the capture time is unchanged. This makes each measurement O(log n) instead of
+ * re-running every odometry update since the capture time.
+ *
+ * <p>{@link #update} and {@link #addMeasurement} may be called from different threads. The estimate is kept
+ * as primitives; {@link #getEstimatedPosition()} only creates a Pose2d when the estimate has changed since
+ * the last call, and the primitive getters never create one.
+ */
+public class LatencyCompensatedPoseEstimator {
+    private final RobustSwerveOdometry odometry;
+
+    /* Odometry pose history ring buffer, oldest sample at historyStart */
+    private final double[] historyTime;
+    private final double[] historyX;
+    private final double[] historyY;
+    private final double[] historyTheta;
+    private int historyStart = 0;
+    private int historySize = 0;
+
+    /* Field-from-odometry offset. estimate = offset * odometry */
+    private double offsetX = 0.0;
+    private double offsetY = 0.0;
+    private double offsetTheta = 0.0;
+
+    /* Per axis gains applied to the measurement error */
+    private final double[] defaultGains = new double[3];
+    /* Gains of a measurement with its own standard deviations, reused by every call */
+    private final double[] measurementGains = new double[3];
+    private final double[] stateVariances = new double[3];
+
+    /* Latest estimate, and its Pose2d once one has been asked for (null until then) */
+    private double estimateX;
+    private double estimateY;
+    private double estimateTheta;
+    private Pose2d estimate;
+
+    /**
+     * @param moduleLocations Module positions relative to the robot center, in the same order as the module positions
+     * @param historyCapacity Number of odometry samples kept for rewinding
+     * @param stateStdDevs Standard deviations of the odometry pose estimate: (x Meters, y Meters, theta Radians)
+     * @param measurementStdDevs Default standard deviations of pose measurements: (x Meters, y Meters, theta Radians)
+     */
+    public LatencyCompensatedPoseEstimator(
+            Translation2d[] moduleLocations, Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d initialPose,
+            int historyCapacity, double[] stateStdDevs, double[] measurementStdDevs){
+        odometry = new RobustSwerveOdometry(moduleLocations, gyroAngle, modulePositions, initialPose);
+        historyTime = new double[historyCapacity];
+        historyX = new double[historyCapacity];
+        historyY = new double[historyCapacity];
+        historyTheta = new double[historyCapacity];
+
+        for(int i = 0; i < 3; i++){
+            stateVariances[i] = stateStdDevs[i] * stateStdDevs[i];
+        }
+        computeGains(measurementStdDevs, defaultGains);
+        setEstimate(initialPose);
+    }
+
+    /**
+     * Integrates a new odometry sample.
+     * @param timestampSeconds Time the sample was measured: (in Seconds, FPGA time)
+     * @return The updated pose estimate
+     */
+    public synchronized Pose2d update(double timestampSeconds, Rotation2d gyroAngle, SwerveModulePosition[] modulePositions){
+        odometry.update(timestampSeconds, gyroAngle, modulePositions);
+        recordOdometry(timestampSeconds);
+        return getEstimatedPosition();
+    }
+
+    /**
+     * Primitive version of {@link #update(double, Rotation2d, SwerveModulePosition[])}, which creates no objects.
+     * @param gyroRadians Gyro Angle, CCW+: (in Radians)
+     * @param distancesMeters Module Distances, in module order: (in Meters)
+     * @param anglesRadians Module Angles, in module order: (in Radians)
+     */
+    public synchronized void update(double timestampSeconds, double gyroRadians, double[] distancesMeters, double[] anglesRadians){
+        odometry.update(timestampSeconds, gyroRadians, distancesMeters, anglesRadians);
+        recordOdometry(timestampSeconds);
+    }
+
+    /* Appends the odometry pose of the last update to the history */
+    private void recordOdometry(double timestampSeconds){
+        int capacity = historyTime.length;
+        int index;
+        if(historySize < capacity){
+            index = (historyStart + historySize) % capacity;
+            historySize++;
+        }
+        else {
+            index = historyStart;
+            historyStart = (historyStart + 1) % capacity;
+        }
+        historyTime[index] = timestampSeconds;
+        historyX[index] = odometry.getX();
+        historyY[index] = odometry.getY();
+        historyTheta[index] = odometry.getHeadingRadians();
+
+        publishEstimate(historyX[index], historyY[index], historyTheta[index]);
+    }
+
+    /**
+     * Fuses a pose measurement captured in the past using the default measurement standard deviations.
+     * @param measuredPose Measured Robot Pose: (in Meters and Radians)
+     * @param timestampSeconds Time the measurement was captured: (in Seconds, FPGA time)
+     * @return False if the capture time is older than the kept history and the measurement was ignored
+     */
+    public boolean addMeasurement(Pose2d measuredPose, double timestampSeconds){
+        return applyMeasurement(measuredPose, timestampSeconds, defaultGains);
+    }
+
+    /**
+     * Fuses a pose measurement captured in the past.
+     * @param measurementStdDevs Standard deviations of this measurement: (x Meters, y Meters, theta Radians)
+     */
+    public synchronized boolean addMeasurement(Pose2d measuredPose, double timestampSeconds, double[] measurementStdDevs){
+        computeGains(measurementStdDevs, measurementGains);
+        return applyMeasurement(measuredPose, timestampSeconds, measurementGains);
+    }
+
+    private synchronized boolean applyMeasurement(Pose2d measuredPose, double timestampSeconds, double[] gains){
+        if(historySize == 0 || timestampSeconds < historyTime[historyStart]){
+            return false;
+        }
+
+        /* Rewind: odometry pose at the capture time */
+        int capacity = historyTime.length;
+        int newest = (historyStart + historySize - 1) % capacity;
+        double odomX, odomY, odomTheta;
+        if(timestampSeconds >= historyTime[newest]){
+            odomX = historyX[newest];
+            odomY = historyY[newest];
+            odomTheta = historyTheta[newest];
+        }
+        else {
+            /* Binary search for the last sample at or before the capture time */
+            int low = 0;
+            int high = historySize - 1;
+            while(low < high){
+                int mid = (low + high + 1) >>> 1;
+                if(historyTime[(historyStart + mid) % capacity] <= timestampSeconds){
+                    low = mid;
+                }
+                else {
+                    high = mid - 1;
+                }
+            }
+            int before = (historyStart + low) % capacity;
+            int after = (before + 1) % capacity;
+            double span = historyTime[after] - historyTime[before];
+            double t = span > 0.0 ? (timestampSeconds - historyTime[before]) / span : 0.0;
+            odomX = historyX[before] + (historyX[after] - historyX[before]) * t;
+            odomY = historyY[before] + (historyY[after] - historyY[before]) * t;
+            odomTheta = historyTheta[before] + MathUtil.angleModulus(historyTheta[after] - historyTheta[before]) * t;
+        }
+
+        /* Correct: estimate at the capture time, pulled towards the measurement */
+        double cos = Math.cos(offsetTheta);
+        double sin = Math.sin(offsetTheta);
+        double estimateX = offsetX + cos * odomX - sin * odomY;
+        double estimateY = offsetY + sin * odomX + cos * odomY;
+        double estimateTheta = offsetTheta + odomTheta;
+
+        double correctedX = estimateX + gains[0] * (measuredPose.getX() - estimateX);
+        double correctedY = estimateY + gains[1] * (measuredPose.getY() - estimateY);
+        double correctedTheta = estimateTheta + gains[2] * MathUtil.angleModulus(measuredPose.getRotation().getRadians() - estimateTheta);
+
+        /* Replay: the odometry motion since the capture time is unchanged, so only the offset moves */
+        offsetTheta = MathUtil.angleModulus(correctedTheta - odomTheta);
+        cos = Math.cos(offsetTheta);
+        sin = Math.sin(offsetTheta);
+        offsetX = correctedX - (cos * odomX - sin * odomY);
+        offsetY = correctedY - (sin * odomX + cos * odomY);
+
+        publishEstimate(historyX[newest], historyY[newest], historyTheta[newest]);
+        return true;
+    }
+
+    /** Resets the estimate to the given pose and clears the measurement history. */
+    public synchronized void resetPosition(Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d pose){
+        odometry.resetPosition(gyroAngle, modulePositions, pose);
+        clearHistory();
+        setEstimate(pose);
+    }
+
+    /**
+     * Primitive version of {@link #resetPosition(Rotation2d, SwerveModulePosition[], Pose2d)}.
+     * @param gyroRadians Gyro Angle, CCW+: (in Radians)
+     * @param distancesMeters Module Distances, in module order: (in Meters)
+     */
+    public synchronized void resetPosition(double gyroRadians, double[] distancesMeters, double x, double y, double headingRadians){
+        odometry.resetPosition(gyroRadians, distancesMeters, x, y, headingRadians);
+        clearHistory();
+        estimateX = x;
+        estimateY = y;
+        estimateTheta = headingRadians;
+        estimate = null;
+    }
+
+    private void clearHistory(){
+        offsetX = 0.0;
+        offsetY = 0.0;
+        offsetTheta = 0.0;
+        historyStart = 0;
+        historySize = 0;
+    }
+
+    private void setEstimate(Pose2d pose){
+        estimateX = pose.getX();
+        estimateY = pose.getY();
+        estimateTheta = pose.getRotation().getRadians();
+        estimate = pose;
+    }
+
+    /** @return Wheel odometry, for its slip detection settings and counts */
+    public RobustSwerveOdometry getOdometry(){
+        return odometry;
+    }
+
+    /** @return The latest pose estimate, created once per change of the estimate */
+    public synchronized Pose2d getEstimatedPosition(){
+        if(estimate == null){
+            estimate = new Pose2d(estimateX, estimateY, new Rotation2d(estimateTheta));
+        }
+        return estimate;
+    }
+
+    /** Estimated Robot X: (in Meters) */
+    public synchronized double getEstimatedX(){
+        return estimateX;
+    }
+
+    /** Estimated Robot Y: (in Meters) */
+    public synchronized double getEstimatedY(){
+        return estimateY;
+    }
+
+    /** Estimated Robot Heading: (in Radians) */
+    public synchronized double getEstimatedHeadingRadians(){
+        return estimateTheta;
+    }
+
+    private void publishEstimate(double odomX, double odomY, double odomTheta){
+        double cos = Math.cos(offsetTheta);
+        double sin = Math.sin(offsetTheta);
+        estimateX = offsetX + cos * odomX - sin * odomY;
+        estimateY = offsetY + sin * odomX + cos * odomY;
+        estimateTheta = offsetTheta + odomTheta;
+        estimate = null;
+    }
+
+    /* Steady state Kalman gain per axis, matching WPILib's pose estimators */
+    private void computeGains(double[] measurementStdDevs, double[] gains){
+        for(int i = 0; i < 3; i++){
+            double q = stateVariances[i];
+            double r = measurementStdDevs[i] * measurementStdDevs[i];
+            gains[i] = q == 0.0 ? 0.0 : q / (q + Math.sqrt(q * r));
+        }
+    }
+}
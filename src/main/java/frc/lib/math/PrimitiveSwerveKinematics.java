@@ -0,0 +1,163 @@
+package frc.lib.math;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Swerve kinematics for any number of modules, stored structure-of-arrays style in primitive arrays.
+ * Inverse kinematics writes module speeds and angles into preallocated arrays and forward kinematics writes
+ * chassis speeds into fields, so neither creates SwerveModuleState, ChassisSpeeds or Rotation2d objects.
+ */
+public class PrimitiveSwerveKinematics {
+    private final double[] moduleX;
+    private final double[] moduleY;
+
+    /* Least squares forward kinematics: the chassis speeds are the dot products of these rows with
+     * the module velocity components along x (A) and y (B) */
+    private final double[] forwardVxA;
+    private final double[] forwardVxB;
+    private final double[] forwardVyA;
+    private final double[] forwardVyB;
+    private final double[] forwardOmegaA;
+    private final double[] forwardOmegaB;
+
+    /** Module speeds from the last call to {@link #toModuleStates}: (in Meters per Second) */
+    public final double[] speeds;
+    /** Module angles from the last call to {@link #toModuleStates}: (in Radians) */
+    public final double[] angles;
+
+    /* Robot relative chassis speeds from the last call to toChassisSpeeds */
+    /** Forward Velocity: (in Meters per Second) */
+    public double vxMetersPerSecond;
+    /** Left Velocity: (in Meters per Second) */
+    public double vyMetersPerSecond;
+    /** Angular Velocity, CCW+: (in Radians per Second) */
+    public double omegaRadiansPerSecond;
+
+    /**
+     * @param moduleLocations Module positions relative to the robot center, in the same order as the module numbers
+     */
+    public PrimitiveSwerveKinematics(Translation2d... moduleLocations){
+        moduleX = new double[moduleLocations.length];
+        moduleY = new double[moduleLocations.length];
+        speeds = new double[moduleLocations.length];
+        angles = new double[moduleLocations.length];
+        for(int i = 0; i < moduleLocations.length; i++){
+            moduleX[i] = moduleLocations[i].getX();
+            moduleY[i] = moduleLocations[i].getY();
+        }
+
+        /* Pseudo-inverse of the inverse kinematics matrix, whose rows are [1, 0, -y] and [0, 1, x] per module.
+         * inverse(A^T A) is worked out in closed form since A^T A is the symmetric matrix
+         * [[n, 0, -sum(y)], [0, n, sum(x)], [-sum(y), sum(x), sum(x^2 + y^2)]] */
+        int n = moduleLocations.length;
+        double sumX = 0.0;
+        double sumY = 0.0;
+        double sumSquares = 0.0;
+        for(int i = 0; i < n; i++){
+            sumX += moduleX[i];
+            sumY += moduleY[i];
+            sumSquares += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+        }
+        double det = n * (n * sumSquares - sumX * sumX) - sumY * sumY * n;
+        if(Math.abs(det) < 1e-12){
+            throw new IllegalArgumentException("Swerve kinematics needs at least two modules at different locations");
+        }
+        double i00 = (n * sumSquares - sumX * sumX) / det;
+        double i01 = (-sumX * sumY) / det;
+        double i02 = (n * sumY) / det;
+        double i11 = (n * sumSquares - sumY * sumY) / det;
+        double i12 = (-n * sumX) / det;
+        double i22 = (double) (n * n) / det;
+
+        forwardVxA = new double[n];
+        forwardVxB = new double[n];
+        forwardVyA = new double[n];
+        forwardVyB = new double[n];
+        forwardOmegaA = new double[n];
+        forwardOmegaB = new double[n];
+        for(int i = 0; i < n; i++){
+            forwardVxA[i] = i00 - i02 * moduleY[i];
+            forwardVyA[i] = i01 - i12 * moduleY[i];
+            forwardOmegaA[i] = i02 - i22 * moduleY[i];
+            forwardVxB[i] = i01 + i02 * moduleX[i];
+            forwardVyB[i] = i11 + i12 * moduleX[i];
+            forwardOmegaB[i] = i12 + i22 * moduleX[i];
+        }
+    }
+
+    public int getModuleCount(){
+        return moduleX.length;
+    }
+
+    /**
+     * Converts robot relative chassis speeds into module speeds and angles, stored in {@link #speeds} and {@link #angles}.
+     * A module that is commanded to stop keeps its previous angle.
+     * @param vxMetersPerSecond Forward Velocity: (in Meters per Second)
+     * @param vyMetersPerSecond Left Velocity: (in Meters per Second)
+     * @param omegaRadiansPerSecond Angular Velocity, CCW+: (in Radians per Second)
+     */
+    public void toModuleStates(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond){
+        for(int i = 0; i < speeds.length; i++){
+            double x = vxMetersPerSecond - omegaRadiansPerSecond * moduleY[i];
+            double y = vyMetersPerSecond + omegaRadiansPerSecond * moduleX[i];
+            double speed = Math.sqrt(x * x + y * y);
+            if(speed > 1e-6){
+                angles[i] = Math.atan2(y, x);
+            }
+            speeds[i] = speed;
+        }
+    }
+
+    /**
+     * Converts module speeds and angles into the least squares best fit robot relative chassis speeds, stored in
+     * {@link #vxMetersPerSecond}, {@link #vyMetersPerSecond} and {@link #omegaRadiansPerSecond}. Passing module
+     * distance deltas instead of speeds gives the chassis twist over that interval instead.
+     * @param moduleSpeeds Module Speeds: (in Meters per Second)
+     * @param moduleAngles Module Angles: (in Radians)
+     */
+    public void toChassisSpeeds(double[] moduleSpeeds, double[] moduleAngles){
+        double vx = 0.0;
+        double vy = 0.0;
+        double omega = 0.0;
+        for(int i = 0; i < moduleX.length; i++){
+            double a = moduleSpeeds[i] * Math.cos(moduleAngles[i]);
+            double b = moduleSpeeds[i] * Math.sin(moduleAngles[i]);
+            vx += forwardVxA[i] * a + forwardVxB[i] * b;
+            vy += forwardVyA[i] * a + forwardVyB[i] * b;
+            omega += forwardOmegaA[i] * a + forwardOmegaB[i] * b;
+        }
+        vxMetersPerSecond = vx;
+        vyMetersPerSecond = vy;
+        omegaRadiansPerSecond = omega;
+    }
+
+    /**
+     * Scales all module speeds down in place so that none exceed the attainable maximum, preserving their ratios.
+     * @param moduleSpeeds Module Speeds: (in Meters per Second)
+     * @param maxSpeed Max Attainable Module Speed: (in Meters per Second)
+     */
+    public static void desaturateWheelSpeeds(double[] moduleSpeeds, double maxSpeed){
+        double realMaxSpeed = 0.0;
+        for(double speed : moduleSpeeds){
+            realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+        }
+        if(realMaxSpeed > maxSpeed){
+            double scale = maxSpeed / realMaxSpeed;
+            for(int i = 0; i < moduleSpeeds.length; i++){
+                moduleSpeeds[i] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Primitive equivalent of SwerveModuleState.optimize. If this returns true the module should
+     * reverse its speed and add half a turn to the desired angle.
+     * @param desiredRadians Desired Module Angle: (in Radians)
+     * @param currentRadians Current Module Angle: (in Radians)
+     * @return Whether the module reaches the desired state faster by driving backwards
+     */
+    public static boolean shouldReverse(double desiredRadians, double currentRadians){
+        return Math.abs(MathUtil.angleModulus(desiredRadians - currentRadians)) > Math.PI / 2.0;
+    }
+}
@@ -0,0 +1,243 @@
+package frc.lib.math;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+/**
+ * Swerve odometry that detects and down-weights slipping wheels.
+ *
+ * <p>Heading comes from the gyro, as with SwerveDriveOdometry. Once the gyro's yaw change over a sample is
+ * known, every module's distance delta implies a translation of the robot center. The module that disagrees
+ * most with the mean of the others is left out of the reference, so a slipping wheel cannot drag it, and every
+ * module is checked against the mean translation implied by the rest; a module that disagrees by more than the
+ * slip tolerance is counted as slipping and its weight falls with the square of its disagreement. The robot
+ * translation is the weighted least squares fit of all modules, which for a known yaw change is the
+ * weighted mean of their implied translations.
+ *
+ * <p>With slip rejection off every module has the same weight, which matches SwerveDriveOdometry for
+ * drivetrains centered on the robot origin. Each update is O(n) in the module count and creates no objects.
+ * The primitive overloads take angles and distances directly, for callers that keep them in arrays.
+ */
+public class RobustSwerveOdometry {
+    private final double[] moduleX;
+    private final double[] moduleY;
+
+    /* Per module state of the last update */
+    private final double[] previousDistances;
+    private final double[] impliedX;
+    private final double[] impliedY;
+    private final double[] weights;
+    private final long[] slipCounts;
+    /* Module positions of the object overloads, unpacked for the primitive ones */
+    private final double[] distanceScratch;
+    private final double[] angleScratch;
+
+    private boolean rejectSlip = false;
+    private double slipSpeedTolerance = 0.0;
+    private double slipRelativeTolerance = 0.0;
+
+    /* Pose of the last update, heading = gyro + gyroOffset */
+    private double poseX;
+    private double poseY;
+    private double poseTheta;
+    private double gyroOffset;
+    private double previousTimestamp = Double.NaN;
+
+    /**
+     * @param moduleLocations Module positions relative to the robot center, in the same order as the module positions
+     */
+    public RobustSwerveOdometry(
+            Translation2d[] moduleLocations, Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d initialPose){
+        int n = moduleLocations.length;
+        moduleX = new double[n];
+        moduleY = new double[n];
+        previousDistances = new double[n];
+        impliedX = new double[n];
+        impliedY = new double[n];
+        weights = new double[n];
+        slipCounts = new long[n];
+        distanceScratch = new double[n];
+        angleScratch = new double[n];
+        for(int i = 0; i < n; i++){
+            moduleX[i] = moduleLocations[i].getX();
+            moduleY[i] = moduleLocations[i].getY();
+            weights[i] = 1.0;
+        }
+        resetPosition(gyroAngle, modulePositions, initialPose);
+    }
+
+    /**
+     * Enables slip rejection. A module slips when its implied translation differs from the other modules' by more than
+     * {@code speedTolerance * dt + relativeTolerance * (their translation)}. Needs at least three modules.
+     * @param speedTolerance Allowed disagreement at any speed: (in Meters per Second)
+     * @param relativeTolerance Allowed disagreement as a fraction of the robot's translation, for scrub at speed
+     */
+    public void setSlipRejection(boolean enabled, double speedTolerance, double relativeTolerance){
+        rejectSlip = enabled && moduleX.length > 2;
+        slipSpeedTolerance = speedTolerance;
+        slipRelativeTolerance = relativeTolerance;
+    }
+
+    /**
+     * Integrates a new sample.
+     * @param timestampSeconds Time the sample was measured: (in Seconds)
+     */
+    public void update(double timestampSeconds, Rotation2d gyroAngle, SwerveModulePosition[] modulePositions){
+        unpack(modulePositions);
+        update(timestampSeconds, gyroAngle.getRadians(), distanceScratch, angleScratch);
+    }
+
+    /**
+     * Primitive version of {@link #update(double, Rotation2d, SwerveModulePosition[])}.
+     * @param gyroRadians Gyro Angle, CCW+: (in Radians)
+     * @param distancesMeters Module Distances, in module order: (in Meters)
+     * @param anglesRadians Module Angles, in module order: (in Radians)
+     */
+    public void update(double timestampSeconds, double gyroRadians, double[] distancesMeters, double[] anglesRadians){
+        int n = moduleX.length;
+        double heading = MathUtil.angleModulus(gyroRadians + gyroOffset);
+        double dTheta = MathUtil.angleModulus(heading - poseTheta);
+        double dt = Double.isNaN(previousTimestamp) ? 0.0 : Math.max(0.0, timestampSeconds - previousTimestamp);
+        previousTimestamp = timestampSeconds;
+
+        /* Robot center translation implied by each module, v = v_module + omega x r */
+        double sumX = 0.0;
+        double sumY = 0.0;
+        for(int i = 0; i < n; i++){
+            double delta = distancesMeters[i] - previousDistances[i];
+            previousDistances[i] = distancesMeters[i];
+            impliedX[i] = delta * Math.cos(anglesRadians[i]) + dTheta * moduleY[i];
+            impliedY[i] = delta * Math.sin(anglesRadians[i]) - dTheta * moduleX[i];
+            sumX += impliedX[i];
+            sumY += impliedY[i];
+        }
+
+        double dx = sumX / n;
+        double dy = sumY / n;
+        /* The first sample after a reset has no interval to scale the tolerance with */
+        if(rejectSlip && dt > 0.0){
+            /* The module furthest from the mean of the others is the most likely to be slipping */
+            int worst = 0;
+            double worstError = -1.0;
+            for(int i = 0; i < n; i++){
+                double errorX = impliedX[i] - (sumX - impliedX[i]) / (n - 1);
+                double errorY = impliedY[i] - (sumY - impliedY[i]) / (n - 1);
+                double error = errorX * errorX + errorY * errorY;
+                if(error > worstError){
+                    worst = i;
+                    worstError = error;
+                }
+            }
+            /* Leave it out of the reference, or its slip shows up as an error in every healthy module too */
+            double referenceX = (sumX - impliedX[worst]) / (n - 1);
+            double referenceY = (sumY - impliedY[worst]) / (n - 1);
+            double tolerance = slipSpeedTolerance * dt + slipRelativeTolerance * Math.sqrt(referenceX * referenceX + referenceY * referenceY);
+
+            double weightSum = 0.0;
+            double weightedX = 0.0;
+            double weightedY = 0.0;
+            for(int i = 0; i < n; i++){
+                double errorX = impliedX[i] - referenceX;
+                double errorY = impliedY[i] - referenceY;
+                double residual = Math.sqrt(errorX * errorX + errorY * errorY);
+
+                double weight = 1.0;
+                if(residual > tolerance){
+                    weight = (tolerance * tolerance) / (residual * residual);
+                    slipCounts[i]++;
+                }
+                weights[i] = weight;
+                weightSum += weight;
+                weightedX += weight * impliedX[i];
+                weightedY += weight * impliedY[i];
+            }
+            /* Every module disagreeing leaves nothing to trust more than the plain mean */
+            if(weightSum > 1e-9){
+                dx = weightedX / weightSum;
+                dy = weightedY / weightSum;
+            }
+        }
+
+        /* Pose exponential of the twist (dx, dy, dTheta), as in Pose2d.exp */
+        double s;
+        double c;
+        if(Math.abs(dTheta) < 1e-9){
+            s = 1.0 - dTheta * dTheta / 6.0;
+            c = 0.5 * dTheta;
+        }
+        else {
+            s = Math.sin(dTheta) / dTheta;
+            c = (1.0 - Math.cos(dTheta)) / dTheta;
+        }
+        double robotX = dx * s - dy * c;
+        double robotY = dx * c + dy * s;
+        double cos = Math.cos(poseTheta);
+        double sin = Math.sin(poseTheta);
+        poseX += robotX * cos - robotY * sin;
+        poseY += robotX * sin + robotY * cos;
+        poseTheta = heading;
+    }
+
+    /** Resets the pose. The gyro and modules do not need to be reset. */
+    public void resetPosition(Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d pose){
+        unpack(modulePositions);
+        resetPosition(gyroAngle.getRadians(), distanceScratch, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Primitive version of {@link #resetPosition(Rotation2d, SwerveModulePosition[], Pose2d)}.
+     * @param gyroRadians Gyro Angle, CCW+: (in Radians)
+     * @param distancesMeters Module Distances, in module order: (in Meters)
+     */
+    public void resetPosition(double gyroRadians, double[] distancesMeters, double x, double y, double headingRadians){
+        poseX = x;
+        poseY = y;
+        poseTheta = MathUtil.angleModulus(headingRadians);
+        gyroOffset = poseTheta - gyroRadians;
+        System.arraycopy(distancesMeters, 0, previousDistances, 0, previousDistances.length);
+        previousTimestamp = Double.NaN;
+    }
+
+    private void unpack(SwerveModulePosition[] modulePositions){
+        for(int i = 0; i < distanceScratch.length; i++){
+            distanceScratch[i] = modulePositions[i].distanceMeters;
+            angleScratch[i] = modulePositions[i].angle.getRadians();
+        }
+    }
+
+    /** Robot X: (in Meters) */
+    public double getX(){
+        return poseX;
+    }
+
+    /** Robot Y: (in Meters) */
+    public double getY(){
+        return poseY;
+    }
+
+    /** Robot Heading: (in Radians, -pi to pi) */
+    public double getHeadingRadians(){
+        return poseTheta;
+    }
+
+    public Pose2d getPoseMeters(){
+        return new Pose2d(poseX, poseY, new Rotation2d(poseTheta));
+    }
+
+    public int getModuleCount(){
+        return moduleX.length;
+    }
+
+    /** @return Samples in which the module was detected slipping */
+    public long getSlipCount(int module){
+        return slipCounts[module];
+    }
+
+    /** @return Weight of the module in the last update, from 0 to 1 */
+    public double getWeight(int module){
+        return weights[module];
+    }
+}
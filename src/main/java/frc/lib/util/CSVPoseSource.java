@@ -0,0 +1,66 @@
+package frc.lib.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Stand-in for an off-board localization source. Plays back timestamped pose measurements from a CSV file
+ * with lines of {@code captureTime,latency,x,y,degrees} (Seconds, Seconds, Meters, Meters, Degrees), times
+ * relative to {@link #start}. Each measurement is delivered once its latency has passed, stamped with its capture time.
+ */
+public class CSVPoseSource {
+    @FunctionalInterface
+    public interface MeasurementConsumer {
+        void accept(Pose2d pose, double timestampSeconds);
+    }
+
+    private final double[] captureTimes;
+    private final double[] latencies;
+    private final Pose2d[] poses;
+    private double startTime = Double.NaN;
+    private int nextIndex = 0;
+
+    public CSVPoseSource(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        lines.removeIf(line -> line.isBlank() || line.startsWith("#"));
+
+        captureTimes = new double[lines.size()];
+        latencies = new double[lines.size()];
+        poses = new Pose2d[lines.size()];
+        for(int i = 0; i < lines.size(); i++){
+            String[] fields = lines.get(i).split(",");
+            captureTimes[i] = Double.parseDouble(fields[0].trim());
+            latencies[i] = Double.parseDouble(fields[1].trim());
+            poses[i] = new Pose2d(
+                Double.parseDouble(fields[2].trim()),
+                Double.parseDouble(fields[3].trim()),
+                Rotation2d.fromDegrees(Double.parseDouble(fields[4].trim()))
+            );
+        }
+    }
+
+    /** Starts playback, with file times measured from the given time. */
+    public void start(double timestampSeconds) {
+        startTime = timestampSeconds;
+        nextIndex = 0;
+    }
+
+    /**
+     * Delivers every measurement whose latency has elapsed by the given time.
+     * @param timestampSeconds Current Time: (in Seconds, FPGA time)
+     */
+    public void poll(double timestampSeconds, MeasurementConsumer consumer) {
+        if(Double.isNaN(startTime)){
+            start(timestampSeconds);
+        }
+        while(nextIndex < poses.length && startTime + captureTimes[nextIndex] + latencies[nextIndex] <= timestampSeconds){
+            consumer.accept(poses[nextIndex], startTime + captureTimes[nextIndex]);
+            nextIndex++;
+        }
+    }
+}
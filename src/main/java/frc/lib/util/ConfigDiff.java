@@ -0,0 +1,117 @@
+package frc.lib.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.ParentConfiguration;
+import com.ctre.phoenix6.configs.ParentConfigurator;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Reads a device's configuration back and writes only the config groups (MotorOutput, Slot0, ...) that
+ * differ from the desired configuration. Skipping unchanged groups shortens boot and avoids rewriting
+ * device flash. Groups are found by reflection, so this works for any Phoenix 6 device configuration.
+ */
+public final class ConfigDiff {
+    private ConfigDiff() {}
+
+    /**
+     * Creates a {@link DeviceConfigurator.ConfigStep} that refreshes the device configuration, logs every
+     * differing field and applies only the differing groups.
+     * @param applyAll Applies the whole configuration, used if it cannot be read back or compared
+     * @param tolerance Largest difference between two double fields that are still considered equal,
+     * relative to their magnitude when it is above 1
+     */
+    public static DeviceConfigurator.ConfigStep applyChanged(String name, ParentConfigurator configurator, ParentConfiguration desired,
+            DeviceConfigurator.ConfigStep applyAll, double tolerance) {
+        return timeout -> {
+            try {
+                ParentConfiguration actual = desired.getClass().getDeclaredConstructor().newInstance();
+                StatusCode status = invoke(configurator, "refresh", actual, timeout);
+                if(!status.isOK()){
+                    DataLogManager.log(name + ": could not read back configuration (" + status.getName() + "), applying all of it");
+                    return applyAll.apply(timeout);
+                }
+
+                List<String> differences = new ArrayList<>();
+                for(Field group : configGroups(desired.getClass())){
+                    Object desiredGroup = group.get(desired);
+                    if(diffGroup(group.getName(), desiredGroup, group.get(actual), tolerance, differences)){
+                        status = invoke(configurator, "apply", desiredGroup, timeout);
+                        if(!status.isOK()){
+                            return status;
+                        }
+                    }
+                }
+
+                if(differences.isEmpty()){
+                    DataLogManager.log(name + ": configuration unchanged, nothing written");
+                }
+                else {
+                    DataLogManager.log(name + ": wrote " + differences.size() + " changed value(s): " + String.join(", ", differences));
+                }
+                return StatusCode.OK;
+            } catch (ReflectiveOperationException e) {
+                DataLogManager.log(name + ": could not diff configuration (" + e + "), applying all of it");
+                return applyAll.apply(timeout);
+            }
+        };
+    }
+
+    /** @return The public config group fields of a device configuration */
+    private static List<Field> configGroups(Class<?> configurationClass) {
+        List<Field> groups = new ArrayList<>();
+        for(Field field : configurationClass.getFields()){
+            if(!Modifier.isStatic(field.getModifiers()) && ParentConfiguration.class.isAssignableFrom(field.getType())){
+                groups.add(field);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Compares every public field of two config groups, adding a description of each difference.
+     * @return Whether any field differs
+     */
+    private static boolean diffGroup(String groupName, Object desired, Object actual, double tolerance, List<String> differences) throws IllegalAccessException {
+        boolean differs = false;
+        for(Field field : desired.getClass().getFields()){
+            if(Modifier.isStatic(field.getModifiers())){
+                continue;
+            }
+            Object desiredValue = field.get(desired);
+            Object actualValue = field.get(actual);
+            boolean equal;
+            if(desiredValue instanceof Double && actualValue instanceof Double){
+                double a = (Double) desiredValue;
+                double b = (Double) actualValue;
+                equal = Math.abs(a - b) <= tolerance * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)));
+            }
+            else {
+                equal = Objects.equals(desiredValue, actualValue);
+            }
+            if(!equal){
+                differences.add(groupName + "." + field.getName() + " " + actualValue + " -> " + desiredValue);
+                differs = true;
+            }
+        }
+        return differs;
+    }
+
+    /* Calls the configurator's refresh or apply overload for the configuration's type */
+    private static StatusCode invoke(ParentConfigurator configurator, String methodName, Object configuration, double timeout) throws ReflectiveOperationException {
+        Method method = configurator.getClass().getMethod(methodName, configuration.getClass(), double.class);
+        try {
+            return (StatusCode) method.invoke(configurator, configuration, timeout);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
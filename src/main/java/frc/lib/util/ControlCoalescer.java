@@ -0,0 +1,84 @@
+package frc.lib.util;
+
+import com.ctre.phoenix6.controls.ControlRequest;
+
+/**
+ * Decides whether a control request needs to be sent to a device. A request is skipped when it is the
+ * same request as last time and none of its setpoints moved by more than the epsilon, unless it has already
+ * been skipped for the keep-alive. Meant for one-shot control requests (UpdateFreqHz = 0), which are only
+ * transmitted when sent and must be refreshed before the device's control timeout.
+ *
+ * <p>The keep-alive counts calls rather than time. Calls come once per loop, so a keep-alive of n sends an
+ * unchanged request every n loops, and a time based keep-alive would be rounded to whole loops anyway.
+ *
+ * <p>Not thread safe, every coalescer is used from one thread.
+ */
+public class ControlCoalescer {
+    /* Totals over every coalescer, for telemetry */
+    private static long totalWrites = 0;
+    private static long totalSavedWrites = 0;
+
+    private final double epsilon;
+    private final int keepAliveCalls;
+
+    private ControlRequest lastRequest = null;
+    private double lastValue = 0.0;
+    private double lastSecondaryValue = 0.0;
+    /* Calls since the last send, including the send */
+    private int callsSinceWrite = 0;
+
+    /**
+     * @param epsilon Largest setpoint change that is not sent, in the units of the setpoints
+     * @param keepAliveCalls An unchanged request is still sent on every keepAliveCalls-th call, 1 sends every call
+     */
+    public ControlCoalescer(double epsilon, int keepAliveCalls) {
+        this.epsilon = epsilon;
+        this.keepAliveCalls = keepAliveCalls;
+    }
+
+    /** Single setpoint version of {@link #shouldWrite(ControlRequest, double, double)}. */
+    public boolean shouldWrite(ControlRequest request, double value) {
+        return shouldWrite(request, value, 0.0);
+    }
+
+    /**
+     * Records the request as sent if it returns true, so the caller must then send it.
+     * @param request Request that would be sent, compared by identity
+     * @param value Setpoint of the request
+     * @param secondaryValue Second setpoint of the request, such as a feedforward
+     * @return Whether the request has to be sent
+     */
+    public boolean shouldWrite(ControlRequest request, double value, double secondaryValue) {
+        boolean unchanged = request == lastRequest
+            && Math.abs(value - lastValue) <= epsilon
+            && Math.abs(secondaryValue - lastSecondaryValue) <= epsilon
+            && callsSinceWrite < keepAliveCalls;
+        if(unchanged){
+            callsSinceWrite++;
+            totalSavedWrites++;
+            return false;
+        }
+
+        lastRequest = request;
+        lastValue = value;
+        lastSecondaryValue = secondaryValue;
+        callsSinceWrite = 1;
+        totalWrites++;
+        return true;
+    }
+
+    /** Makes the next request be sent regardless of its setpoints. */
+    public void invalidate() {
+        lastRequest = null;
+    }
+
+    /** @return Requests sent by every coalescer */
+    public static long getTotalWrites() {
+        return totalWrites;
+    }
+
+    /** @return Requests skipped by every coalescer */
+    public static long getTotalSavedWrites() {
+        return totalSavedWrites;
+    }
+}
@@ -0,0 +1,150 @@
+package frc.lib.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.ctre.phoenix6.StatusCode;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Configures many CAN devices at once. Each device's steps run in order on their own thread, so the
+ * blocking configuration round trips of different devices overlap. A step that does not return OK
+ * is retried with exponential backoff. A step that throws fails its device. Per device and total
+ * configuration time is logged.
+ */
+public class DeviceConfigurator {
+    /** One blocking configuration call, such as applying a configuration object. */
+    @FunctionalInterface
+    public interface ConfigStep {
+        StatusCode apply(double timeoutSeconds);
+    }
+
+    private static class DeviceTask {
+        final String name;
+        final ConfigStep[] steps;
+        /* Not OK until every step has returned OK, so a device whose steps never ran is reported as failed */
+        StatusCode status = StatusCode.StatusCodeNotInitialized;
+        Throwable error = null;
+        int attempts = 0;
+        double seconds = 0.0;
+
+        DeviceTask(String name, ConfigStep[] steps) {
+            this.name = name;
+            this.steps = steps;
+        }
+    }
+
+    private final int maxAttempts;
+    private final double timeoutSeconds;
+    private final double retryBackoffSeconds;
+    private final List<DeviceTask> tasks = new ArrayList<>();
+
+    /**
+     * @param maxAttempts Attempts per step before the device is reported as failed
+     * @param timeoutSeconds Timeout of each configuration call: (in Seconds)
+     * @param retryBackoffSeconds Wait before the first retry, doubled for each following retry: (in Seconds)
+     */
+    public DeviceConfigurator(int maxAttempts, double timeoutSeconds, double retryBackoffSeconds) {
+        this.maxAttempts = maxAttempts;
+        this.timeoutSeconds = timeoutSeconds;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+    }
+
+    /** Adds a device whose steps are run in the given order. */
+    public void add(String name, ConfigStep... steps) {
+        tasks.add(new DeviceTask(name, steps));
+    }
+
+    /**
+     * Configures every added device concurrently and blocks until all of them finish.
+     * @return Whether every device was configured successfully
+     */
+    public boolean applyAll() {
+        if(tasks.isEmpty()){
+            return true;
+        }
+
+        long start = System.nanoTime();
+        List<Callable<Void>> callables = new ArrayList<>(tasks.size());
+        for(DeviceTask task : tasks){
+            callables.add(() -> {
+                configure(task);
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), runnable -> {
+            Thread thread = new Thread(runnable, "DeviceConfigurator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Void>> futures = executor.invokeAll(callables);
+            for(int i = 0; i < futures.size(); i++){
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    tasks.get(i).error = e.getCause();
+                } catch (CancellationException e) {
+                    tasks.get(i).error = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        double totalSeconds = (System.nanoTime() - start) / 1e9;
+
+        boolean allOK = true;
+        double serialSeconds = 0.0;
+        for(DeviceTask task : tasks){
+            serialSeconds += task.seconds;
+            String result = task.error != null ? task.error.toString() : task.status.getName();
+            String summary = String.format("%s: %s in %.1f ms, %d attempt(s)", task.name, result, task.seconds * 1e3, task.attempts);
+            if(task.error == null && task.status.isOK()){
+                DataLogManager.log("Configured " + summary);
+            }
+            else {
+                allOK = false;
+                DriverStation.reportError("Failed to configure " + summary, false);
+            }
+        }
+        DataLogManager.log(String.format("Configured %d devices in %.1f ms (%.1f ms if done one at a time)", tasks.size(), totalSeconds * 1e3, serialSeconds * 1e3));
+        return allOK;
+    }
+
+    private void configure(DeviceTask task) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            StatusCode status = StatusCode.OK;
+            for(ConfigStep step : task.steps){
+                double backoff = retryBackoffSeconds;
+                for(int attempt = 1; attempt <= maxAttempts; attempt++){
+                    task.attempts++;
+                    status = step.apply(timeoutSeconds);
+                    if(status.isOK()){
+                        break;
+                    }
+                    if(attempt < maxAttempts){
+                        Thread.sleep((long) (backoff * 1e3));
+                        backoff *= 2.0;
+                    }
+                }
+                if(!status.isOK()){
+                    break;
+                }
+            }
+            task.status = status;
+        } finally {
+            task.seconds = (System.nanoTime() - start) / 1e9;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package frc.lib.util;
+
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.Utils;
+
+/**
+ * Extrapolates position signals to a common time using their paired velocity signals, so values from
+ * frames that arrived at different times line up. Unlike BaseStatusSignal.getLatencyCompensatedValue,
+ * which compensates to whenever it is called, every signal read against the same {@link #now()} is
+ * compensated to the same instant.
+ */
+public final class LatencyCompensation {
+    private LatencyCompensation() {}
+
+    /** @return Current time in the time base of the signals' system timestamps: (in Seconds) */
+    public static double now() {
+        return Utils.getCurrentTimeSeconds();
+    }
+
+    /**
+     * @param position Refreshed position signal
+     * @param velocity Refreshed velocity signal, in the position's units per second
+     * @param nowSeconds Time to extrapolate to, from {@link #now()}: (in Seconds)
+     * @param maxLatency Largest extrapolation, so a stale frame is not extrapolated far: (in Seconds)
+     * @return The position at nowSeconds
+     */
+    public static double extrapolate(StatusSignal<Double> position, StatusSignal<Double> velocity, double nowSeconds, double maxLatency) {
+        double latency = nowSeconds - position.getAllTimestamps().getSystemTimestamp().getTime();
+        latency = Math.max(0.0, Math.min(latency, maxLatency));
+        return position.getValue() + velocity.getValue() * latency;
+    }
+}
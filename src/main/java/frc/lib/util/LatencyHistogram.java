@@ -0,0 +1,76 @@
+package frc.lib.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size latency histogram with linear bins. Recording never allocates, so it is safe to use in the main loop.
+ * Samples longer than the histogram range are counted in an overflow bin and still tracked for the max.
+ */
+public class LatencyHistogram {
+    private final long binWidthNanos;
+    private final long[] bins;
+    private long overflow = 0;
+    private long count = 0;
+    private long maxNanos = 0;
+
+    /**
+     * @param binWidthNanos Width of each bin: (in Nanoseconds)
+     * @param binCount Number of bins, so the histogram covers binWidthNanos * binCount
+     */
+    public LatencyHistogram(long binWidthNanos, int binCount) {
+        this.binWidthNanos = binWidthNanos;
+        this.bins = new long[binCount];
+    }
+
+    /** @param nanos Sample Latency: (in Nanoseconds) */
+    public void record(long nanos) {
+        long bin = nanos / binWidthNanos;
+        if(bin < bins.length){
+            bins[(int) bin]++;
+        }
+        else {
+            overflow++;
+        }
+        count++;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 1
+     * @return Upper edge of the bin containing the percentile: (in Milliseconds). Returns the max if it falls in the overflow bin.
+     */
+    public double getPercentileMillis(double percentile) {
+        if(count == 0){
+            return 0.0;
+        }
+        long target = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for(int i = 0; i < bins.length; i++){
+            seen += bins[i];
+            if(seen >= target){
+                return (i + 1) * binWidthNanos / 1e6;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /** @return Longest recorded sample: (in Milliseconds) */
+    public double getMaxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getOverflow() {
+        return overflow;
+    }
+
+    public void reset() {
+        Arrays.fill(bins, 0);
+        overflow = 0;
+        count = 0;
+        maxNanos = 0;
+    }
+}
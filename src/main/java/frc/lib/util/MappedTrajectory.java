@@ -0,0 +1,202 @@
+package frc.lib.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+
+/**
+ * Trajectory backed by a memory-mapped file of precomputed states, written by {@link #write}.
+ * Loading maps the file without parsing it, and states are only read when sampled.
+ *
+ * <p>File format (big endian): int magic, int version, int state count, then per state the doubles
+ * time, velocity, acceleration, x, y, heading (radians) and curvature.
+ */
+public class MappedTrajectory extends Trajectory {
+    private static final int magic = 0x5452414A;
+    private static final int version = 1;
+    private static final int headerBytes = 3 * Integer.BYTES;
+    private static final int stateDoubles = 7;
+    private static final int stateBytes = stateDoubles * Double.BYTES;
+
+    private final DoubleBuffer states;
+    private final int stateCount;
+    private final double totalTimeSeconds;
+
+    private MappedTrajectory(DoubleBuffer states, int stateCount) {
+        this.states = states;
+        this.stateCount = stateCount;
+        this.totalTimeSeconds = states.get((stateCount - 1) * stateDoubles);
+    }
+
+    /** Maps a trajectory file written by {@link #write}. */
+    public static MappedTrajectory load(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.remaining() < headerBytes || buffer.getInt() != magic || buffer.getInt() != version){
+                throw new IOException("Not a version " + version + " trajectory file: " + file);
+            }
+            int stateCount = buffer.getInt();
+            if(stateCount < 1 || buffer.remaining() != (long) stateCount * stateBytes){
+                throw new IOException("Truncated trajectory file: " + file);
+            }
+            return new MappedTrajectory(buffer.slice().asDoubleBuffer(), stateCount);
+        }
+    }
+
+    /** Writes every state of the trajectory to a file that {@link #load} can map. */
+    public static void write(Trajectory trajectory, Path file) throws IOException {
+        List<State> trajectoryStates = trajectory.getStates();
+        ByteBuffer buffer = ByteBuffer.allocate(headerBytes + trajectoryStates.size() * stateBytes);
+        buffer.putInt(magic);
+        buffer.putInt(version);
+        buffer.putInt(trajectoryStates.size());
+        for(State state : trajectoryStates){
+            buffer.putDouble(state.timeSeconds);
+            buffer.putDouble(state.velocityMetersPerSecond);
+            buffer.putDouble(state.accelerationMetersPerSecondSq);
+            buffer.putDouble(state.poseMeters.getX());
+            buffer.putDouble(state.poseMeters.getY());
+            buffer.putDouble(state.poseMeters.getRotation().getRadians());
+            buffer.putDouble(state.curvatureRadPerMeter);
+        }
+        buffer.flip();
+
+        if(file.getParent() != null){
+            Files.createDirectories(file.getParent());
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private double time(int index) {
+        return states.get(index * stateDoubles);
+    }
+
+    private State getState(int index) {
+        int offset = index * stateDoubles;
+        return new State(
+            states.get(offset),
+            states.get(offset + 1),
+            states.get(offset + 2),
+            new Pose2d(states.get(offset + 3), states.get(offset + 4), new Rotation2d(states.get(offset + 5))),
+            states.get(offset + 6)
+        );
+    }
+
+    /* Same search and interpolation as Trajectory.sample, reading states from the mapped file */
+    @Override
+    public State sample(double timeSeconds) {
+        if(timeSeconds <= time(0)){
+            return getState(0);
+        }
+        if(timeSeconds >= totalTimeSeconds){
+            return getState(stateCount - 1);
+        }
+
+        /* Binary search for the first state at or after the requested time */
+        int low = 1;
+        int high = stateCount - 1;
+        while(low != high){
+            int mid = (low + high) / 2;
+            if(time(mid) < timeSeconds){
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+
+        double prevTime = time(low - 1);
+        double nextTime = time(low);
+        if(Math.abs(nextTime - prevTime) < 1e-9){
+            return getState(low);
+        }
+        return interpolate(low - 1, low, (timeSeconds - prevTime) / (nextTime - prevTime));
+    }
+
+    /* Trajectory.State.interpolate, which is package-private, on the mapped states */
+    private State interpolate(int start, int end, double i) {
+        int startOffset = start * stateDoubles;
+        int endOffset = end * stateDoubles;
+        double startTime = states.get(startOffset);
+        double newT = MathUtil.interpolate(startTime, states.get(endOffset), i);
+        double deltaT = newT - startTime;
+        if(deltaT < 0){
+            return interpolate(end, start, 1.0 - i);
+        }
+
+        double velocity = states.get(startOffset + 1);
+        double acceleration = states.get(startOffset + 2);
+        boolean reversing = velocity < 0 || Math.abs(velocity) < 1e-9 && acceleration < 0;
+        double newV = velocity + acceleration * deltaT;
+        double newS = (velocity * deltaT + 0.5 * acceleration * deltaT * deltaT) * (reversing ? -1.0 : 1.0);
+
+        double startX = states.get(startOffset + 3);
+        double startY = states.get(startOffset + 4);
+        double startHeading = states.get(startOffset + 5);
+        double dx = states.get(endOffset + 3) - startX;
+        double dy = states.get(endOffset + 4) - startY;
+        double dHeading = MathUtil.angleModulus(states.get(endOffset + 5) - startHeading);
+        double fraction = newS / Math.hypot(dx, dy);
+
+        /* Pose lerp as in Trajectory: start.plus(end.minus(start).times(fraction)) */
+        return new State(
+            newT,
+            newV,
+            acceleration,
+            new Pose2d(startX + dx * fraction, startY + dy * fraction, new Rotation2d(MathUtil.angleModulus(startHeading + dHeading * fraction))),
+            MathUtil.interpolate(states.get(startOffset + 6), states.get(endOffset + 6), fraction)
+        );
+    }
+
+    @Override
+    public double getTotalTimeSeconds() {
+        return totalTimeSeconds;
+    }
+
+    @Override
+    public Pose2d getInitialPose() {
+        return getState(0).poseMeters;
+    }
+
+    /** @return A copy of every state, read from the mapped file */
+    @Override
+    public List<State> getStates() {
+        List<State> copy = new ArrayList<>(stateCount);
+        for(int i = 0; i < stateCount; i++){
+            copy.add(getState(i));
+        }
+        return copy;
+    }
+
+    @Override
+    public Trajectory transformBy(Transform2d transform) {
+        return new Trajectory(getStates()).transformBy(transform);
+    }
+
+    @Override
+    public Trajectory relativeTo(Pose2d pose) {
+        return new Trajectory(getStates()).relativeTo(pose);
+    }
+
+    @Override
+    public Trajectory concatenate(Trajectory other) {
+        return new Trajectory(getStates()).concatenate(other);
+    }
+}
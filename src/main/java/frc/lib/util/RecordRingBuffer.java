@@ -0,0 +1,79 @@
+package frc.lib.util;
+
+/**
+ * Fixed capacity, single producer / single consumer ring buffer of fixed width double records.
+ * All storage is allocated up front, so the memory used never grows. When the consumer falls
+ * behind, new records are dropped and counted rather than blocking the producer.
+ */
+public class RecordRingBuffer {
+    private final int recordSize;
+    private final int capacity;
+    private final double[] data;
+    private final long[] timestamps;
+
+    /* Total records written and read. Only the producer writes head, only the consumer writes tail. */
+    private volatile long head = 0;
+    private volatile long tail = 0;
+    private volatile long dropped = 0;
+
+    /**
+     * @param recordSize Number of doubles in each record
+     * @param capacity Maximum number of records held before new records are dropped
+     */
+    public RecordRingBuffer(int recordSize, int capacity) {
+        this.recordSize = recordSize;
+        this.capacity = capacity;
+        this.data = new double[recordSize * capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Copies a record into the buffer. Called only from the producer thread.
+     * @param timestamp Record Timestamp: (in Microseconds)
+     * @param record Record values, at least {@link #getRecordSize()} long
+     * @return False if the buffer was full and the record was dropped
+     */
+    public boolean offer(long timestamp, double[] record) {
+        long currentHead = head;
+        if(currentHead - tail >= capacity){
+            dropped++;
+            return false;
+        }
+        int slot = (int) (currentHead % capacity);
+        System.arraycopy(record, 0, data, slot * recordSize, recordSize);
+        timestamps[slot] = timestamp;
+        head = currentHead + 1;
+        return true;
+    }
+
+    /**
+     * Copies the oldest record out of the buffer. Called only from the consumer thread.
+     * @param record Destination, at least {@link #getRecordSize()} long
+     * @return Record Timestamp: (in Microseconds), or -1 if the buffer is empty
+     */
+    public long poll(double[] record) {
+        long currentTail = tail;
+        if(currentTail == head){
+            return -1;
+        }
+        int slot = (int) (currentTail % capacity);
+        System.arraycopy(data, slot * recordSize, record, 0, recordSize);
+        long timestamp = timestamps[slot];
+        tail = currentTail + 1;
+        return timestamp;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /** @return Number of records waiting to be read */
+    public int size() {
+        return (int) (head - tail);
+    }
+
+    /** @return Number of records dropped because the buffer was full */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -1,12 +1,14 @@
 package frc.lib.util;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
 
 public class SwerveModuleConstants {
     public final int driveMotorID;
     public final int angleMotorID;
     public final int cancoderID;
     public final Rotation2d angleOffset;
+    public final Translation2d location;
 
     /**
      * Swerve Module Constants to be used when creating swerve modules.
@@ -14,11 +16,13 @@ public class SwerveModuleConstants {
      * @param angleMotorID
      * @param canCoderID
      * @param angleOffset
+     * @param location Module position relative to the robot center, +X forward and +Y left: (in Meters)
      */
-    public SwerveModuleConstants(int driveMotorID, int angleMotorID, int canCoderID, Rotation2d angleOffset) {
+    public SwerveModuleConstants(int driveMotorID, int angleMotorID, int canCoderID, Rotation2d angleOffset, Translation2d location) {
         this.driveMotorID = driveMotorID;
         this.angleMotorID = angleMotorID;
         this.cancoderID = canCoderID;
         this.angleOffset = angleOffset;
+        this.location = location;
     }
 }
@@ -1,8 +1,13 @@
 package frc.robot;
 
 import com.ctre.phoenix6.configs.CANcoderConfiguration;
+import com.ctre.phoenix6.configs.ParentConfiguration;
+import com.ctre.phoenix6.configs.ParentConfigurator;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 
+import frc.lib.util.ConfigDiff;
+import frc.lib.util.DeviceConfigurator;
+
 public final class CTREConfigs {
     public TalonFXConfiguration swerveAngleFXConfig = new TalonFXConfiguration();
     public TalonFXConfiguration swerveDriveFXConfig = new TalonFXConfiguration();
@@ -58,4 +63,16 @@ public final class CTREConfigs {
         swerveDriveFXConfig.ClosedLoopRamps.DutyCycleClosedLoopRampPeriod = Constants.Swerve.closedLoopRamp;
         swerveDriveFXConfig.ClosedLoopRamps.VoltageClosedLoopRampPeriod = Constants.Swerve.closedLoopRamp;
     }
-}
\ No newline at end of file
+
+    /**
+     * Configuration step for a device. With {@link Constants.DeviceConfig#skipUnchanged} the device
+     * configuration is read back first and only the groups that differ are written.
+     * @param applyAll Applies the whole configuration
+     */
+    public static DeviceConfigurator.ConfigStep applyStep(String name, ParentConfigurator configurator, ParentConfiguration config, DeviceConfigurator.ConfigStep applyAll){
+        if(Constants.DeviceConfig.skipUnchanged){
+            return ConfigDiff.applyChanged(name, configurator, config, applyAll, Constants.DeviceConfig.compareTolerance);
+        }
+        return applyAll;
+    }
+}
@@ -1,5 +1,7 @@
 package frc.robot;
 
+import java.util.Arrays;
+
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import com.ctre.phoenix6.signals.SensorDirectionValue;
@@ -7,6 +9,7 @@ import com.ctre.phoenix6.signals.SensorDirectionValue;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.util.Units;
 import frc.lib.util.COTSTalonFXSwerveConstants;
@@ -17,6 +20,8 @@ public final class Constants {
 
     public static final class Swerve {
         public static final int pigeonID = 1;
+        /* CAN bus the drivetrain devices are on, "rio" or the name of a CANivore */
+        public static final String canBus = "rio";
 
         public static final COTSTalonFXSwerveConstants chosenModule =  //TODO: This must be tuned to specific robot
         COTSTalonFXSwerveConstants.SDS.MK4i.Falcon500(COTSTalonFXSwerveConstants.SDS.MK4i.driveRatios.L2);
@@ -27,12 +32,29 @@ public final class Constants {
         public static final double wheelCircumference = chosenModule.wheelCircumference;
 
         /* Swerve Kinematics 
-         * No need to ever change this unless you are not doing a traditional rectangular/square 4 module swerve */
-         public static final SwerveDriveKinematics swerveKinematics = new SwerveDriveKinematics(
-            new Translation2d(wheelBase / 2.0, trackWidth / 2.0),
-            new Translation2d(wheelBase / 2.0, -trackWidth / 2.0),
-            new Translation2d(-wheelBase / 2.0, trackWidth / 2.0),
-            new Translation2d(-wheelBase / 2.0, -trackWidth / 2.0));
+         * Every module on the drivetrain, in module number order. Any number of modules is supported,
+         * each module's location is set in its constants below */
+        public static final SwerveModuleConstants[] modules = {
+            Mod0.constants,
+            Mod1.constants,
+            Mod2.constants,
+            Mod3.constants};
+        public static final Translation2d[] moduleTranslations =
+            Arrays.stream(modules).map(module -> module.location).toArray(Translation2d[]::new);
+        public static final SwerveDriveKinematics swerveKinematics = new SwerveDriveKinematics(moduleTranslations);
+
+        /* Odometry thread sample rate in Hz: 250 Hz on a CANivore (CAN FD) bus, 100 Hz on the roboRIO bus */
+        public static final double odometryFrequency = canBus.isEmpty() || canBus.equals("rio") ? 100.0 : 250.0;
+        /* Odometry samples kept between robot loops, enough for a few overrunning loops */
+        public static final int odometrySampleCapacity = 32;
+
+        /* Pose Estimation
+         * Standard deviations are (x Meters, y Meters, theta Radians). Higher values trust that source less */
+        public static final double poseHistorySeconds = 1.5;
+        public static final double[] stateStdDevs = {0.1, 0.1, 0.1};
+        public static final double[] measurementStdDevs = {0.9, 0.9, 0.9};
+        /* CSV of recorded pose measurements in the deploy directory to replay into the estimator, empty to disable */
+        public static final String poseSourceFile = "";
 
         /* Module Gear Ratios */
         public static final double driveGearRatio = chosenModule.driveGearRatio;
@@ -94,8 +116,9 @@ public final class Constants {
             public static final int angleMotorID = 2;
             public static final int canCoderID = 1;
             public static final Rotation2d angleOffset = Rotation2d.fromDegrees(0.0);
+            public static final Translation2d location = new Translation2d(wheelBase / 2.0, trackWidth / 2.0);
             public static final SwerveModuleConstants constants = 
-                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset);
+                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset, location);
         }
 
         /* Front Right Module - Module 1 */
@@ -104,8 +127,9 @@ public final class Constants {
             public static final int angleMotorID = 4;
             public static final int canCoderID = 2;
             public static final Rotation2d angleOffset = Rotation2d.fromDegrees(0.0);
+            public static final Translation2d location = new Translation2d(wheelBase / 2.0, -trackWidth / 2.0);
             public static final SwerveModuleConstants constants = 
-                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset);
+                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset, location);
         }
         
         /* Back Left Module - Module 2 */
@@ -114,8 +138,9 @@ public final class Constants {
             public static final int angleMotorID = 6;
             public static final int canCoderID = 3;
             public static final Rotation2d angleOffset = Rotation2d.fromDegrees(0.0);
+            public static final Translation2d location = new Translation2d(-wheelBase / 2.0, trackWidth / 2.0);
             public static final SwerveModuleConstants constants = 
-                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset);
+                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset, location);
         }
 
         /* Back Right Module - Module 3 */
@@ -124,11 +149,142 @@ public final class Constants {
             public static final int angleMotorID = 8;
             public static final int canCoderID = 4;
             public static final Rotation2d angleOffset = Rotation2d.fromDegrees(0.0);
+            public static final Translation2d location = new Translation2d(-wheelBase / 2.0, -trackWidth / 2.0);
             public static final SwerveModuleConstants constants = 
-                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset);
+                new SwerveModuleConstants(driveMotorID, angleMotorID, canCoderID, angleOffset, location);
         }
     }
 
+    public static final class Sim {
+        /* Physics update period, faster than the robot loop so the simulated closed loops stay stable (in Seconds) */
+        public static final double period = 0.005;
+
+        /* In simulation, run the TalonFX, CANcoder and Pigeon 2 IOs against Phoenix sim states, so the device
+         * configs and on-device closed loops are exercised. Those follow wall-clock time, so when false the
+         * Java models in ModuleIOSim are used instead, which also work in stepped time */
+        public static final boolean usePhoenixSim = false;
+
+        public static final DCMotor driveMotor = DCMotor.getFalcon500(1); //TODO: Match the motors on the robot
+        public static final DCMotor angleMotor = DCMotor.getFalcon500(1);
+
+        /* Moments of inertia at the wheel and the module azimuth (in kg m^2) */
+        public static final double driveInertia = 0.025;
+        public static final double angleInertia = 0.004;
+    }
+
+    public static final class Telemetry {
+        public enum Verbosity { COMPETITION, DEBUG }
+
+        /* DEBUG additionally publishes CANcoder angles and odometry thread health */
+        public static final Verbosity verbosity = Verbosity.COMPETITION;
+
+        /* Publish periods for each group of topics (in Seconds) */
+        public static final double posePeriod = 0.02;
+        public static final double moduleStatesPeriod = 0.05;
+        public static final double debugPeriod = 0.1;
+    }
+
+    public static final class Logging {
+        /* Records held before the main loop starts dropping them, about 10 seconds of loops. Each record is ~250 bytes */
+        public static final int bufferCapacity = 512;
+        /* How often the background writer drains the buffer into the DataLog (in Seconds) */
+        public static final double writerPeriod = 0.1;
+    }
+
+    public static final class DeviceConfig {
+        /* Attempts per configuration call before a device is reported as failed */
+        public static final int maxAttempts = 5;
+        /* Timeout of each configuration call (in Seconds) */
+        public static final double timeout = 0.1;
+        /* Wait before the first retry, doubled for each following retry (in Seconds) */
+        public static final double retryBackoff = 0.02;
+        /* Read configurations back and only write the groups that differ, logging every changed value */
+        public static final boolean skipUnchanged = true;
+        /* Relative tolerance when comparing read back values, which the devices store at reduced precision */
+        public static final double compareTolerance = 1e-3;
+    }
+
+    public static final class Seeding {
+        /* Absolute encoder samples older than this are not used to seed the angle motors (in Seconds) */
+        public static final double maxSampleAge = 0.1;
+        /* Consecutive valid absolute readings, each from a new CANcoder frame, that must agree before a module is seeded */
+        public static final int requiredSamples = 3;
+        public static final double agreementTolerance = 0.002; // Rotations
+        /* Seed from the latest reading anyway once this has passed, and report it (in Seconds) */
+        public static final double timeout = 2.0;
+
+        /* Re-sync the angle motor to the absolute encoder when the module has been still for stationaryTime
+         * and the two disagree by more than resyncTolerance */
+        public static final boolean resyncWhenStationary = true;
+        public static final double stationarySpeed = 0.02; // Meters per Second
+        public static final double stationaryTime = 0.5; // Seconds
+        public static final double resyncTolerance = 0.003; // Rotations
+    }
+
+    public static final class DriveCompensation {
+        /* Discretize commanded chassis speeds over the loop period they are held for, so translating while
+         * rotating does not skew the robot */
+        public static final boolean discretize = true;
+        /* Rotate the commanded translation by the heading change expected over the steer and control latency (in Seconds) */
+        public static final double angularVelocityLookahead = 0.0; //TODO: This must be tuned to specific robot
+        /* Scale each module's drive speed by the cosine of its steer error, so modules still turning push less in the wrong direction */
+        public static final boolean cosineScaling = true;
+    }
+
+    public static final class SlipDetection {
+        /* Odometry checks each module against the motion implied by the other modules and the gyro, and
+         * down-weights modules that disagree by more than speedTolerance plus relativeTolerance of the
+         * robot's speed. The relative part leaves room for normal scrub at speed */
+        public static final boolean enabled = true;
+        public static final double speedTolerance = 0.25; // Meters per Second
+        public static final double relativeTolerance = 0.15;
+    }
+
+    public static final class Signals {
+        /* Update rate of signals used for control and logging but not odometry (in Hertz) */
+        public static final double controlFrequency = 100.0;
+        /* Positions are extrapolated with their velocities to a common time, by at most this much (in Seconds) */
+        public static final double maxCompensatedLatency = 0.05;
+        /* Absolute angle is only needed to seed and check the angle motors (in Hertz) */
+        public static final double absolutePositionFrequency = 20.0;
+        /* How often CAN bus health and signal ages are published (in Seconds) */
+        public static final double publishPeriod = 0.5;
+    }
+
+    public static final class Outputs {
+        /* Module control requests are sent as one-shot frames, and only when a setpoint changes by more than
+         * the epsilon or the keep-alive has passed. The keep-alive counts loops: an unchanged request is resent
+         * every keepAliveLoops loops, so the longest gap between frames is 40 ms plus any overrun, inside the
+         * devices' 50 ms one-shot control timeout */
+        public static final boolean coalesce = true;
+        public static final double angleEpsilon = 1e-4; // Rotations
+        public static final double driveEpsilon = 1e-3; // Rotations per Second, Volts or duty cycle
+        public static final int keepAliveLoops = 2;
+    }
+
+    public static final class Profiling {
+        /* Histogram bins cover 0 to 50 ms in 50 us steps */
+        public static final long binWidthNanos = 50_000;
+        public static final int binCount = 1000;
+        /* How often the loop timing summary is published and the histograms reset (in Seconds) */
+        public static final double publishPeriod = 1.0;
+    }
+
+    public static final class InputLatency {
+        /* A trace starts when a driver axis moves by more than this since the last loop (from -1 to 1) */
+        public static final double movementThreshold = 0.05;
+        /* The device has acknowledged a duty cycle once its reported output has moved this far towards the command.
+         * Small, so the open loop ramp (full output in openLoopRamp) crosses it within the first frame (from -1 to 1) */
+        public static final double acknowledgeTolerance = 0.002;
+        /* Traces that have not been acknowledged by then are dropped, e.g. when the movement was inside the deadband (in Seconds) */
+        public static final double traceTimeout = 0.25;
+        /* Histogram bins cover 0 to 100 ms in 100 us steps */
+        public static final long binWidthNanos = 100_000;
+        public static final int binCount = 1000;
+        /* How often the latency summary is published and the histograms reset (in Seconds) */
+        public static final double publishPeriod = 2.0;
+    }
+
     public static final class AutoConstants { //TODO: The below constants are used in the example auto, and must be tuned to specific robot
         public static final double kMaxSpeedMetersPerSecond = 3;
         public static final double kMaxAccelerationMetersPerSecondSquared = 3;
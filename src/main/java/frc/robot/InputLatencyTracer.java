@@ -0,0 +1,170 @@
+package frc.robot;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.lib.util.LatencyHistogram;
+
+/**
+ * Traces how long a driver stick movement takes to reach the motors. A trace starts when a driver axis
+ * moves at the HID sample and every later stage is stamped once, as the time since the HID sample. The
+ * last stage is the drive motor starting to apply the command: the first duty cycle frame, received after
+ * the command was sent, that has moved from the duty cycle reported when it was sent towards the command.
+ * That is timed by the device timestamp of the frame, so it includes the CAN round trip and the device's
+ * own update, but not the open loop ramp, which only sets how long the output takes to arrive. The HID
+ * sample is the time the robot code read the controller, not when the Driver Station sent it.
+ *
+ * <p>One trace is in flight at a time. A summary of [p50 ms, p99 ms, max ms, count] per stage is published
+ * to NetworkTables every {@link Constants.InputLatency#publishPeriod}, after which the histograms start a
+ * new window. Only call this from the main robot thread.
+ */
+public final class InputLatencyTracer {
+    public enum Stage {
+        /** Deadbanded inputs in TeleopSwerve */
+        DEADBAND,
+        /** Module states computed in Swerve.drive */
+        KINEMATICS,
+        /** Drive motor control request sent */
+        CONTROL_SENT,
+        /** Drive motor reports its duty cycle moving towards the command */
+        DEVICE_ACK
+    }
+
+    private static final Stage[] stages = Stage.values();
+    private static final LatencyHistogram[] histograms = new LatencyHistogram[stages.length];
+    private static final DoubleArrayPublisher[] publishers = new DoubleArrayPublisher[stages.length];
+    private static final IntegerPublisher droppedPublisher;
+    private static final double[] summary = new double[4];
+    private static final long timeoutNanos = (long) (Constants.InputLatency.traceTimeout * 1e9);
+    private static final long publishPeriodNanos = (long) (Constants.InputLatency.publishPeriod * 1e9);
+    private static long nextPublish = System.nanoTime();
+
+    /* Trace in flight */
+    private static boolean tracing = false;
+    private static long traceStart = 0;
+    private static final long[] stageTimes = new long[stages.length];
+    private static final boolean[] stageMarked = new boolean[stages.length];
+    private static Object acknowledgeOwner = null;
+    private static double acknowledgeTarget = 0.0;
+    private static double acknowledgeBaseline = 0.0;
+    private static long droppedTraces = 0;
+
+    /* Driver axes at the last HID sample */
+    private static final double[] lastAxes = new double[3];
+
+    static {
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("InputLatency");
+        for(Stage stage : stages){
+            histograms[stage.ordinal()] = new LatencyHistogram(Constants.InputLatency.binWidthNanos, Constants.InputLatency.binCount);
+            publishers[stage.ordinal()] = table.getDoubleArrayTopic(stage.name()).publish();
+        }
+        droppedPublisher = table.getIntegerTopic("DroppedTraces").publish();
+    }
+
+    private InputLatencyTracer() {}
+
+    /**
+     * Stamps the HID sample and starts a trace if a driver axis moved. Called once per loop where the controller is read.
+     * @param sampleNanos {@link System#nanoTime()} just before the controller was read
+     */
+    public static void hidSampled(long sampleNanos, double translation, double strafe, double rotation) {
+        boolean moved = Math.abs(translation - lastAxes[0]) > Constants.InputLatency.movementThreshold
+            || Math.abs(strafe - lastAxes[1]) > Constants.InputLatency.movementThreshold
+            || Math.abs(rotation - lastAxes[2]) > Constants.InputLatency.movementThreshold;
+        lastAxes[0] = translation;
+        lastAxes[1] = strafe;
+        lastAxes[2] = rotation;
+
+        if(tracing && sampleNanos - traceStart > timeoutNanos){
+            tracing = false;
+            droppedTraces++;
+        }
+        if(moved && !tracing){
+            tracing = true;
+            traceStart = sampleNanos;
+            acknowledgeOwner = null;
+            for(int i = 0; i < stages.length; i++){
+                stageMarked[i] = false;
+            }
+        }
+        publishIfDue();
+    }
+
+    /** Stamps a stage of the trace in flight, if it has not been stamped yet. */
+    public static void mark(Stage stage) {
+        if(tracing && !stageMarked[stage.ordinal()]){
+            stageMarked[stage.ordinal()] = true;
+            stageTimes[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stamps {@link Stage#CONTROL_SENT} for the first drive motor that sends a duty cycle after the movement.
+     * That motor then has to report its duty cycle moving towards the command for the trace to complete.
+     * @param owner Identifies the motor, passed back to {@link #isAwaitingAcknowledge}
+     * @param dutyCycle Commanded Output: (from -1 to 1)
+     * @param reportedDutyCycle Output the motor last reported, before this command: (from -1 to 1)
+     */
+    public static void controlSent(Object owner, double dutyCycle, double reportedDutyCycle) {
+        if(tracing && stageMarked[Stage.KINEMATICS.ordinal()] && !stageMarked[Stage.CONTROL_SENT.ordinal()]){
+            mark(Stage.CONTROL_SENT);
+            acknowledgeOwner = owner;
+            acknowledgeTarget = dutyCycle;
+            acknowledgeBaseline = reportedDutyCycle;
+        }
+    }
+
+    /** @return Whether the trace in flight is waiting for this motor to report its commanded duty cycle */
+    public static boolean isAwaitingAcknowledge(Object owner) {
+        return tracing && owner == acknowledgeOwner;
+    }
+
+    /**
+     * Completes the trace if the reported duty cycle was received after the command was sent and has
+     * started moving towards it. Later commands of the same movement do not move the target, since the
+     * first one decides the direction.
+     * @param dutyCycle Reported Output: (from -1 to 1)
+     * @param latencySeconds Age of the reported value: (in Seconds)
+     */
+    public static void dutyCycleReported(double dutyCycle, double latencySeconds) {
+        long deviceTime = System.nanoTime() - (long) (latencySeconds * 1e9);
+        if(deviceTime <= stageTimes[Stage.CONTROL_SENT.ordinal()]){
+            /* Reported before the command could have arrived */
+            return;
+        }
+        double commandedChange = acknowledgeTarget - acknowledgeBaseline;
+        double reportedChange = dutyCycle - acknowledgeBaseline;
+        boolean alreadyThere = Math.abs(commandedChange) <= Constants.InputLatency.acknowledgeTolerance;
+        boolean responding = Math.abs(reportedChange) > Constants.InputLatency.acknowledgeTolerance && reportedChange * commandedChange > 0.0;
+        if(!alreadyThere && !responding){
+            return;
+        }
+        stageMarked[Stage.DEVICE_ACK.ordinal()] = true;
+        stageTimes[Stage.DEVICE_ACK.ordinal()] = deviceTime;
+
+        for(int i = 0; i < stages.length; i++){
+            if(stageMarked[i]){
+                histograms[i].record(stageTimes[i] - traceStart);
+            }
+        }
+        tracing = false;
+        acknowledgeOwner = null;
+    }
+
+    private static void publishIfDue() {
+        long now = System.nanoTime();
+        if(now >= nextPublish){
+            nextPublish = now + publishPeriodNanos;
+            for(int i = 0; i < stages.length; i++){
+                summary[0] = histograms[i].getPercentileMillis(0.5);
+                summary[1] = histograms[i].getPercentileMillis(0.99);
+                summary[2] = histograms[i].getMaxMillis();
+                summary[3] = histograms[i].getCount();
+                publishers[i].set(summary);
+                histograms[i].reset();
+            }
+            droppedPublisher.set(droppedTraces);
+        }
+    }
+}
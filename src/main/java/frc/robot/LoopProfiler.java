@@ -0,0 +1,107 @@
+package frc.robot;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.lib.util.LatencyHistogram;
+
+/**
+ * Times each phase of the robot loop into allocation free latency histograms. A loop overruns when the
+ * whole of robotPeriodic, from {@link #beginLoop} to {@link #endLoop}, takes longer than the loop period,
+ * and the overrun is counted against the phase that took the most time in that loop. A summary of
+ * [p50 ms, p99 ms, max ms, overruns] per phase is published to NetworkTables every
+ * {@link Constants.Profiling#publishPeriod}, after which the histograms start a new window.
+ *
+ * <p>Phases nest (LOOP contains every phase, SCHEDULER the subsystem and command phases, SIGNAL_REFRESH
+ * runs inside SWERVE_PERIODIC, MODULE_OUTPUT inside the command phases), so a phase's time includes the
+ * phases it contains. Only call this from the main robot thread.
+ */
+public final class LoopProfiler {
+    public enum Phase {
+        /** The whole robotPeriodic, which contains every other phase */
+        LOOP,
+        /** The whole CommandScheduler run, which contains the subsystem and command phases */
+        SCHEDULER,
+        /** Batched status signal refresh (hardware read) */
+        SIGNAL_REFRESH,
+        SWERVE_PERIODIC,
+        TELEOP_EXECUTE,
+        AUTO_EXECUTE,
+        /** Module setControl calls of every module, once per loop (hardware write) */
+        MODULE_OUTPUT,
+        /** Building the autonomous commands once their trajectories have loaded, after the scheduler */
+        AUTO_BUILD
+    }
+
+    private static final Phase[] phases = Phase.values();
+    private static final LatencyHistogram[] histograms = new LatencyHistogram[phases.length];
+    private static final long[] loopNanos = new long[phases.length];
+    private static final long[] overruns = new long[phases.length];
+
+    private static final DoubleArrayPublisher[] publishers = new DoubleArrayPublisher[phases.length];
+    private static final double[] summary = new double[4];
+    private static final long loopPeriodNanos = (long) (TimedRobot.kDefaultPeriod * 1e9);
+    private static final long publishPeriodNanos = (long) (Constants.Profiling.publishPeriod * 1e9);
+    private static long nextPublish = System.nanoTime();
+    private static long loopStart = System.nanoTime();
+
+    static {
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("Profiling");
+        for(Phase phase : phases){
+            histograms[phase.ordinal()] = new LatencyHistogram(Constants.Profiling.binWidthNanos, Constants.Profiling.binCount);
+            publishers[phase.ordinal()] = table.getDoubleArrayTopic(phase.name()).publish();
+        }
+    }
+
+    private LoopProfiler() {}
+
+    /** @return Start time to pass to {@link #stop} */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        histograms[phase.ordinal()].record(elapsed);
+        loopNanos[phase.ordinal()] += elapsed;
+    }
+
+    /** Starts a loop. Call first thing in robotPeriodic. */
+    public static void beginLoop() {
+        loopStart = System.nanoTime();
+    }
+
+    /** Closes out the current loop. Call last thing in robotPeriodic. */
+    public static void endLoop() {
+        stop(Phase.LOOP, loopStart);
+        if(loopNanos[Phase.LOOP.ordinal()] > loopPeriodNanos){
+            overruns[Phase.LOOP.ordinal()]++;
+
+            /* The containing phases would always be the worst, so blame the phase inside them */
+            int worst = -1;
+            for(int i = 0; i < phases.length; i++){
+                if(i != Phase.LOOP.ordinal() && i != Phase.SCHEDULER.ordinal() && (worst < 0 || loopNanos[i] > loopNanos[worst])){
+                    worst = i;
+                }
+            }
+            overruns[worst]++;
+        }
+        for(int i = 0; i < phases.length; i++){
+            loopNanos[i] = 0;
+        }
+
+        long now = System.nanoTime();
+        if(now >= nextPublish){
+            nextPublish = now + publishPeriodNanos;
+            for(int i = 0; i < phases.length; i++){
+                summary[0] = histograms[i].getPercentileMillis(0.5);
+                summary[1] = histograms[i].getPercentileMillis(0.99);
+                summary[2] = histograms[i].getMaxMillis();
+                summary[3] = overruns[i];
+                publishers[i].set(summary);
+                histograms[i].reset();
+            }
+        }
+    }
+}
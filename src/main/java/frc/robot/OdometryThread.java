@@ -0,0 +1,212 @@
+package frc.robot;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+
+import edu.wpi.first.wpilibj.Threads;
+import edu.wpi.first.wpilibj.Timer;
+import frc.lib.util.LatencyCompensation;
+
+/**
+ * Samples every registered signal in lockstep at {@link Constants.Swerve#odometryFrequency} and queues the
+ * values together with the time they were measured. Each position is extrapolated with its paired velocity
+ * to the time of the sample, so values from frames that arrived at different times line up. The main loop
+ * drains the queues through the module and gyro IO between {@link #beginDrain()} and {@link #endDrain()},
+ * and integrates the samples into the pose estimator itself, so odometry only depends on the recorded inputs
+ * and can be replayed.
+ *
+ * <p>Samples are handed over without a lock. This thread is the only writer of a ring buffer of whole samples
+ * and the main loop is its only reader, each publishing its position through a volatile index, so neither
+ * ever waits on the other. Signals must be registered before the thread starts.
+ */
+public class OdometryThread extends Thread {
+    private static OdometryThread instance;
+
+    public static synchronized OdometryThread getInstance() {
+        if(instance == null){
+            instance = new OdometryThread();
+        }
+        return instance;
+    }
+
+    /** One value of every queued sample, read by the main loop between {@link #beginDrain()} and {@link #endDrain()}. */
+    public class SampleQueue {
+        private final int column;
+
+        private SampleQueue(int column) {
+            this.column = column;
+        }
+
+        /**
+         * Copies this value of every sample taken before {@link #beginDrain()} into the array, oldest first.
+         * @return Number of samples copied
+         */
+        public int drainTo(double[] destination) {
+            if(ring == null){
+                return 0;
+            }
+            int count = (int) Math.min(drainEnd - drainStart, destination.length);
+            for(int i = 0; i < count; i++){
+                destination[i] = ring[(int) ((drainStart + i) % capacity) * stride + column];
+            }
+            return count;
+        }
+    }
+
+    /* Samples the ring holds before new ones are dropped */
+    private final int capacity = Constants.Swerve.odometrySampleCapacity;
+
+    /* Independent copies of the registered signals and their paired velocities, owned by this thread */
+    private StatusSignal<Double>[] signals = newSignalArray(0);
+    private StatusSignal<Double>[] slopes = newSignalArray(0);
+    private BaseStatusSignal[] allSignals = new BaseStatusSignal[0];
+
+    /* Ring of samples, each the timestamp followed by every signal, allocated when the thread starts */
+    private int stride = 1;
+    private double[] ring;
+    /* Samples written by this thread and read by the main loop since the start */
+    private volatile long writeIndex = 0;
+    private volatile long readIndex = 0;
+    /* Samples being drained this loop, only touched by the main loop */
+    private long drainStart = 0;
+    private long drainEnd = 0;
+
+    private volatile long successfulSamples = 0;
+    private volatile long failedSamples = 0;
+    private volatile long droppedSamples = 0;
+    private volatile double lastSamplePeriod = 0.0;
+
+    private OdometryThread() {
+        setName("OdometryThread");
+        setDaemon(true);
+    }
+
+    /**
+     * Samples the position at the odometry frequency, compensated for latency with its velocity. Both update
+     * frequencies are set to the odometry frequency by the {@link SignalPlan}.
+     * @param velocity Velocity signal in the position's units per second
+     * @return Queue of the sampled positions
+     */
+    public synchronized SampleQueue registerSignal(StatusSignal<Double> position, StatusSignal<Double> velocity) {
+        if(getState() != State.NEW){
+            throw new IllegalStateException("Odometry signals must be registered before the thread starts");
+        }
+        StatusSignal<Double> positionClone = position.clone();
+        StatusSignal<Double> velocityClone = velocity.clone();
+        signals = append(signals, positionClone);
+        slopes = append(slopes, velocityClone);
+        BaseStatusSignal[] newAllSignals = new BaseStatusSignal[allSignals.length + 2];
+        System.arraycopy(allSignals, 0, newAllSignals, 0, allSignals.length);
+        newAllSignals[allSignals.length] = positionClone;
+        newAllSignals[allSignals.length + 1] = velocityClone;
+        allSignals = newAllSignals;
+        stride = 1 + signals.length;
+        return new SampleQueue(signals.length);
+    }
+
+    /** @return Queue of the time each sample was measured (in Seconds, FPGA time) */
+    public SampleQueue makeTimestampQueue() {
+        return new SampleQueue(0);
+    }
+
+    /** Starts sampling if any signals have been registered. */
+    public synchronized void startIfRegistered() {
+        if(signals.length > 0 && getState() == State.NEW){
+            ring = new double[capacity * stride];
+            start();
+        }
+    }
+
+    /**
+     * Fixes the samples every queue drains this loop, so every IO sees the same samples even while new
+     * ones arrive. Call on the main loop before the IOs read their inputs.
+     */
+    public void beginDrain() {
+        drainStart = readIndex;
+        drainEnd = writeIndex;
+    }
+
+    /** Frees the samples drained since {@link #beginDrain()} for this thread to reuse. */
+    public void endDrain() {
+        readIndex = drainEnd;
+    }
+
+    @Override
+    public void run() {
+        /* Run above the main robot thread so samples are not delayed by the scheduler */
+        Threads.setCurrentThreadPriority(true, 1);
+
+        double period = 1.0 / Constants.Swerve.odometryFrequency;
+        double timeout = 2.0 * period;
+        long lastSampleTime = System.nanoTime();
+        while(!isInterrupted()){
+            StatusCode status = BaseStatusSignal.waitForAll(timeout, allSignals);
+            if(!status.isOK()){
+                failedSamples++;
+                /* A timeout has already waited, any other error returns at once and would spin this thread */
+                if(status != StatusCode.RxTimeout){
+                    try {
+                        Thread.sleep((long) Math.ceil(period * 1000));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            long now = System.nanoTime();
+            lastSamplePeriod = (now - lastSampleTime) / 1e9;
+            lastSampleTime = now;
+
+            long index = writeIndex;
+            if(index - readIndex >= capacity){
+                /* The main loop has fallen behind, keep the samples it has not read yet */
+                droppedSamples++;
+                continue;
+            }
+
+            /* Every position is extrapolated to now, so now is when the whole sample was measured */
+            double compensationTime = LatencyCompensation.now();
+            int offset = (int) (index % capacity) * stride;
+            ring[offset] = Timer.getFPGATimestamp();
+            for(int i = 0; i < signals.length; i++){
+                ring[offset + 1 + i] = LatencyCompensation.extrapolate(
+                    signals[i], slopes[i], compensationTime, Constants.Signals.maxCompensatedLatency);
+            }
+            /* Publishes the sample to the main loop */
+            writeIndex = index + 1;
+            successfulSamples++;
+        }
+    }
+
+    public long getSuccessfulSamples() {
+        return successfulSamples;
+    }
+
+    public long getFailedSamples() {
+        return failedSamples;
+    }
+
+    /** @return Samples dropped because the main loop had not read the ones before them */
+    public long getDroppedSamples() {
+        return droppedSamples;
+    }
+
+    /** @return Time between the last two successful samples (in Seconds) */
+    public double getLastSamplePeriod() {
+        return lastSamplePeriod;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatusSignal<Double>[] newSignalArray(int length) {
+        return new StatusSignal[length];
+    }
+
+    private static StatusSignal<Double>[] append(StatusSignal<Double>[] signals, StatusSignal<Double> signal) {
+        StatusSignal<Double>[] newSignals = newSignalArray(signals.length + 1);
+        System.arraycopy(signals, 0, newSignals, 0, signals.length);
+        newSignals[signals.length] = signal;
+        return newSignals;
+    }
+}
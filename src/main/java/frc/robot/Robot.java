@@ -4,6 +4,7 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
@@ -27,6 +28,9 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotInit() {
+    // Start the on-robot DataLog, which the drivetrain logger writes into.
+    DataLogManager.start();
+
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     m_robotContainer = new RobotContainer();
@@ -41,11 +45,23 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotPeriodic() {
+    LoopProfiler.beginLoop();
+    // Reads and records the inputs this loop runs on, before anything uses them.
+    m_robotContainer.updateInputs();
+
     // Runs the Scheduler.  This is responsible for polling buttons, adding newly-scheduled
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
+    long start = LoopProfiler.start();
     CommandScheduler.getInstance().run();
+    LoopProfiler.stop(LoopProfiler.Phase.SCHEDULER, start);
+
+    // Builds the autonomous commands on this thread once their trajectories have loaded.
+    start = LoopProfiler.start();
+    m_robotContainer.robotPeriodic();
+    LoopProfiler.stop(LoopProfiler.Phase.AUTO_BUILD, start);
+    LoopProfiler.endLoop();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
@@ -2,13 +2,16 @@ package frc.robot;
 
 import edu.wpi.first.wpilibj.GenericHID;
 import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.button.JoystickButton;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
 
 import frc.robot.autos.*;
 import frc.robot.commands.*;
+import frc.robot.io.*;
+import frc.robot.sim.SwerveDriveSim;
 import frc.robot.subsystems.*;
 
 /**
@@ -27,27 +30,93 @@ public class RobotContainer {
     private final int rotationAxis = XboxController.Axis.kRightX.value;
 
     /* Driver Buttons */
-    private final JoystickButton zeroGyro = new JoystickButton(driver, XboxController.Button.kY.value);
-    private final JoystickButton robotCentric = new JoystickButton(driver, XboxController.Button.kLeftBumper.value);
+    private final int zeroGyroButton = XboxController.Button.kY.value;
+    private final int robotCentricButton = XboxController.Button.kLeftBumper.value;
+
+    /* Inputs read at the start of every loop and recorded, or played back from a log */
+    private final ReplayLog replayLog;
+    private final RobotStateInputs robotInputs = new RobotStateInputs();
+    private final DriverInputs driverInputs = new DriverInputs();
+    private final AutoInputs autoInputs = new AutoInputs();
+    private final InputRecorder robotRecorder = new InputRecorder(RobotStateInputs.channel);
+    private final InputRecorder driverRecorder = new InputRecorder(DriverInputs.channel);
+    private final InputRecorder autoRecorder = new InputRecorder(AutoInputs.channel);
 
     /* Subsystems */
-    private final Swerve s_Swerve = new Swerve();
+    private final Swerve s_Swerve;
+    private final SwerveTelemetry s_SwerveTelemetry;
+
+    /* Autonomous Routines */
+    private final AutoRegistry autoRegistry = new AutoRegistry();
 
 
     /** The container for the robot. Contains subsystems, OI devices, and commands. */
     public RobotContainer() {
+        this(null);
+    }
+
+    /**
+     * @param replayLog Log to play the robot's inputs back from instead of reading the hardware and
+     * controllers, or null to run normally
+     */
+    public RobotContainer(ReplayLog replayLog) {
+        this.replayLog = replayLog;
+        s_Swerve = createSwerve(replayLog);
+        s_SwerveTelemetry = new SwerveTelemetry(s_Swerve);
+
         s_Swerve.setDefaultCommand(
             new TeleopSwerve(
                 s_Swerve, 
-                () -> -driver.getRawAxis(translationAxis), 
-                () -> -driver.getRawAxis(strafeAxis), 
-                () -> -driver.getRawAxis(rotationAxis), 
-                () -> robotCentric.getAsBoolean()
+                () -> driverInputs.translation, 
+                () -> driverInputs.strafe, 
+                () -> driverInputs.rotation, 
+                () -> driverInputs.robotCentric
             )
         );
 
         // Configure the button bindings
         configureButtonBindings();
+
+        // Register the autonomous routines and start preparing them
+        configureAutos();
+    }
+
+    /* Real devices on the robot, simulated devices or physics models in simulation, or the recorded inputs in a replay */
+    private static Swerve createSwerve(ReplayLog replayLog) {
+        int moduleCount = Constants.Swerve.modules.length;
+        ModuleIO[] moduleIOs = new ModuleIO[moduleCount];
+        GyroIO gyroIO;
+        if(replayLog != null){
+            for(int i = 0; i < moduleCount; i++){
+                moduleIOs[i] = new ModuleIOReplay(replayLog, i);
+            }
+            gyroIO = new GyroIOReplay(replayLog);
+        }
+        else if(RobotBase.isReal()){
+            for(int i = 0; i < moduleCount; i++){
+                moduleIOs[i] = new ModuleIOTalonFX(i, Constants.Swerve.modules[i]);
+            }
+            gyroIO = new GyroIOPigeon2();
+        }
+        else if(Constants.Sim.usePhoenixSim){
+            ModuleIOTalonFX[] deviceIOs = new ModuleIOTalonFX[moduleCount];
+            for(int i = 0; i < moduleCount; i++){
+                deviceIOs[i] = new ModuleIOTalonFX(i, Constants.Swerve.modules[i]);
+                moduleIOs[i] = deviceIOs[i];
+            }
+            GyroIOPigeon2 pigeonIO = new GyroIOPigeon2();
+            gyroIO = pigeonIO;
+            new SwerveDriveSim(deviceIOs, pigeonIO).start();
+        }
+        else {
+            ModuleIOSim[] moduleSims = new ModuleIOSim[moduleCount];
+            for(int i = 0; i < moduleCount; i++){
+                moduleSims[i] = new ModuleIOSim(Constants.Swerve.modules[i]);
+                moduleIOs[i] = moduleSims[i];
+            }
+            gyroIO = new GyroIOSim(moduleSims);
+        }
+        return new Swerve(gyroIO, moduleIOs);
     }
 
     /**
@@ -58,7 +127,64 @@ public class RobotContainer {
      */
     private void configureButtonBindings() {
         /* Driver Buttons */
-        zeroGyro.onTrue(new InstantCommand(() -> s_Swerve.zeroHeading()));
+        new Trigger(() -> driverInputs.zeroGyro).onTrue(new InstantCommand(() -> s_Swerve.zeroHeading()));
+    }
+
+    /**
+     * Registers every autonomous routine with the auto chooser. Trajectories are loaded in the background
+     * and the commands are built while disabled, before autonomous starts.
+     */
+    private void configureAutos() {
+        autoRegistry.register("Example Auto", trajectories -> new exampleAuto(s_Swerve, trajectories[0]), "exampleAuto");
+        autoRegistry.prepare();
+    }
+
+    /**
+     * Reads the robot state, driver controller and auto selection, or plays them back in a replay, and records them.
+     * Called at the start of every robot loop, before the scheduler runs.
+     */
+    public void updateInputs() {
+        if(replayLog == null){
+            robotInputs.update();
+            long sampleNanos = System.nanoTime();
+            driverInputs.translation = -driver.getRawAxis(translationAxis);
+            driverInputs.strafe = -driver.getRawAxis(strafeAxis);
+            driverInputs.rotation = -driver.getRawAxis(rotationAxis);
+            driverInputs.robotCentric = driver.getRawButton(robotCentricButton);
+            driverInputs.zeroGyro = driver.getRawButton(zeroGyroButton);
+            InputLatencyTracer.hidSampled(sampleNanos, driverInputs.translation, driverInputs.strafe, driverInputs.rotation);
+            autoInputs.selectedRoutine = autoRegistry.getSelectedIndex();
+        }
+        else {
+            double[] robotValues = replayLog.get(RobotStateInputs.channel);
+            if(robotValues != null){
+                robotInputs.fromArray(robotValues);
+            }
+            double[] driverValues = replayLog.get(DriverInputs.channel);
+            if(driverValues != null){
+                driverInputs.fromArray(driverValues);
+            }
+            double[] autoValues = replayLog.get(AutoInputs.channel);
+            if(autoValues != null){
+                autoInputs.fromArray(autoValues);
+            }
+        }
+        robotRecorder.record(robotInputs);
+        driverRecorder.record(driverInputs);
+        autoRecorder.record(autoInputs);
+    }
+
+    /** Builds the prepared autonomous routines. Called every robot loop. */
+    public void robotPeriodic() {
+        autoRegistry.periodic();
+    }
+
+    public Swerve getSwerve() {
+        return s_Swerve;
+    }
+
+    public AutoRegistry getAutoRegistry() {
+        return autoRegistry;
     }
 
     /**
@@ -67,7 +193,7 @@ public class RobotContainer {
      * @return the command to run in autonomous
      */
     public Command getAutonomousCommand() {
-        // An ExampleCommand will run in autonomous
-        return new exampleAuto(s_Swerve);
+        // The routine selected on the dashboard when this loop's inputs were read, built ahead of time
+        return autoRegistry.get(autoInputs.selectedRoutine);
     }
 }
@@ -0,0 +1,88 @@
+package frc.robot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.ParentDevice;
+
+import frc.lib.util.DeviceConfigurator;
+
+/**
+ * Every status signal the drivetrain reads and the rate it needs it at. Applying the plan sets those
+ * rates and then optimizes each device's bus utilization, which turns off every status frame that
+ * no planned signal is in. The plan is also the drivetrain's refresh batch: {@link #refreshAll()} refreshes
+ * every planned signal in one call each loop, so the IOs only read cached values. Anything added later that
+ * reads another signal must add it to the plan.
+ */
+public class SignalPlan {
+    private final List<String> names = new ArrayList<>();
+    private final List<BaseStatusSignal> signals = new ArrayList<>();
+    private final List<Double> frequencies = new ArrayList<>();
+    private final Map<String, ParentDevice> devices = new LinkedHashMap<>();
+    private final Map<String, List<Integer>> deviceSignals = new LinkedHashMap<>();
+    private double[] appliedFrequencies = new double[0];
+    /* Array form of the signals for refreshAll, rebuilt when a signal is added */
+    private BaseStatusSignal[] batch = new BaseStatusSignal[0];
+
+    /**
+     * @param deviceName Name of the device the signal belongs to, such as "Mod 0 Drive Motor"
+     * @param signal Signal read by the main loop, used for the signal's age telemetry
+     * @param frequencyHz Update Frequency: (in Hertz)
+     */
+    public void add(String deviceName, ParentDevice device, BaseStatusSignal signal, double frequencyHz) {
+        devices.put(deviceName, device);
+        deviceSignals.computeIfAbsent(deviceName, d -> new ArrayList<>()).add(signals.size());
+        names.add(deviceName + " " + signal.getName());
+        signals.add(signal);
+        frequencies.add(frequencyHz);
+        batch = signals.toArray(new BaseStatusSignal[0]);
+    }
+
+    /** Refreshes every planned signal in one batched call. */
+    public void refreshAll() {
+        if(batch.length > 0){
+            BaseStatusSignal.refreshAll(batch);
+        }
+    }
+
+    /** Adds one step per device that sets its planned signal rates and then optimizes its bus utilization. */
+    public void configure(DeviceConfigurator configurator) {
+        appliedFrequencies = new double[signals.size()];
+        for(Map.Entry<String, List<Integer>> entry : deviceSignals.entrySet()){
+            ParentDevice device = devices.get(entry.getKey());
+            List<Integer> indices = entry.getValue();
+            configurator.add(entry.getKey() + " Signals", timeout -> {
+                for(int i : indices){
+                    StatusCode status = signals.get(i).setUpdateFrequency(frequencies.get(i), timeout);
+                    if(!status.isOK()){
+                        return status;
+                    }
+                    appliedFrequencies[i] = frequencies.get(i);
+                }
+                return device.optimizeBusUtilization(timeout);
+            });
+        }
+    }
+
+    public int size() {
+        return signals.size();
+    }
+
+    public String getName(int index) {
+        return names.get(index);
+    }
+
+    /** @return Update frequency set on the device, or 0 if it could not be set: (in Hertz) */
+    public double getAppliedFrequency(int index) {
+        return appliedFrequencies[index];
+    }
+
+    /** @return Time between the signal's last update and its last refresh: (in Seconds) */
+    public double getAge(int index) {
+        return signals.get(index).getTimestamp().getLatency();
+    }
+}
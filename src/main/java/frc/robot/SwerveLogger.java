@@ -0,0 +1,156 @@
+package frc.robot;
+
+import java.util.concurrent.locks.LockSupport;
+
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.lib.util.RecordRingBuffer;
+
+/**
+ * Records drivetrain state every loop for post match analysis. The main loop only copies primitives
+ * into a preallocated ring buffer; a background thread drains the buffer into the WPILib DataLog in batches.
+ */
+public class SwerveLogger {
+    private final int moduleCount;
+    private final RecordRingBuffer buffer;
+
+    /* Record layout offsets */
+    private final int measuredSpeeds;
+    private final int measuredAngles;
+    private final int desiredSpeeds;
+    private final int desiredAngles;
+    private final int gyroYaw;
+    private final int pose;
+    private final int compensation;
+    private final int cosineScales;
+    private final int loopTime;
+
+    /* Producer side scratch record, only touched by the main loop */
+    private final double[] record;
+
+    /* Consumer side, only touched by the writer thread */
+    private final double[] drainRecord;
+    private final double[] moduleScratch;
+    private final double[] poseScratch = new double[3];
+    private final double[] discretizationScratch = new double[2];
+    private final DoubleArrayLogEntry measuredSpeedsEntry;
+    private final DoubleArrayLogEntry measuredAnglesEntry;
+    private final DoubleArrayLogEntry desiredSpeedsEntry;
+    private final DoubleArrayLogEntry desiredAnglesEntry;
+    private final DoubleLogEntry gyroYawEntry;
+    private final DoubleArrayLogEntry poseEntry;
+    private final DoubleArrayLogEntry discretizationEntry;
+    private final DoubleLogEntry lookaheadEntry;
+    private final DoubleArrayLogEntry cosineScalesEntry;
+    private final DoubleLogEntry loopTimeEntry;
+    private final IntegerLogEntry droppedEntry;
+    private long lastDropped = 0;
+
+    public SwerveLogger(int moduleCount) {
+        this.moduleCount = moduleCount;
+        measuredSpeeds = 0;
+        measuredAngles = measuredSpeeds + moduleCount;
+        desiredSpeeds = measuredAngles + moduleCount;
+        desiredAngles = desiredSpeeds + moduleCount;
+        gyroYaw = desiredAngles + moduleCount;
+        pose = gyroYaw + 1;
+        compensation = pose + 3;
+        cosineScales = compensation + 3;
+        loopTime = cosineScales + moduleCount;
+        int recordSize = loopTime + 1;
+
+        buffer = new RecordRingBuffer(recordSize, Constants.Logging.bufferCapacity);
+        record = new double[recordSize];
+        drainRecord = new double[recordSize];
+        moduleScratch = new double[moduleCount];
+
+        DataLog log = DataLogManager.getLog();
+        measuredSpeedsEntry = new DoubleArrayLogEntry(log, "Swerve/MeasuredSpeeds");
+        measuredAnglesEntry = new DoubleArrayLogEntry(log, "Swerve/MeasuredAngles");
+        desiredSpeedsEntry = new DoubleArrayLogEntry(log, "Swerve/DesiredSpeeds");
+        desiredAnglesEntry = new DoubleArrayLogEntry(log, "Swerve/DesiredAngles");
+        gyroYawEntry = new DoubleLogEntry(log, "Swerve/GyroYaw");
+        poseEntry = new DoubleArrayLogEntry(log, "Swerve/Pose");
+        discretizationEntry = new DoubleArrayLogEntry(log, "Swerve/DiscretizationCorrection");
+        lookaheadEntry = new DoubleLogEntry(log, "Swerve/LookaheadRotation");
+        cosineScalesEntry = new DoubleArrayLogEntry(log, "Swerve/CosineScales");
+        loopTimeEntry = new DoubleLogEntry(log, "Swerve/LoopTime");
+        droppedEntry = new IntegerLogEntry(log, "Swerve/DroppedRecords");
+
+        Thread writer = new Thread(this::writeLoop, "SwerveLogWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues one loop of drivetrain state. Never blocks; if the writer has fallen behind the record is dropped.
+     * Angles are logged in Degrees, speeds in Meters per Second.
+     * @param poseX Estimated Robot X: (in Meters)
+     * @param poseY Estimated Robot Y: (in Meters)
+     * @param poseHeadingRadians Estimated Robot Heading: (in Radians)
+     * @param driveCompensation Compensation terms of the last drive command: (vx correction, vy correction, lookahead rotation Radians)
+     * @param loopTimeSeconds Time since the previous record: (in Seconds)
+     */
+    public void record(SwerveModuleArrays modules, double gyroYawDegrees, double poseX, double poseY, double poseHeadingRadians,
+            double[] driveCompensation, double loopTimeSeconds) {
+        for(int i = 0; i < moduleCount; i++){
+            record[measuredSpeeds + i] = modules.speedsMetersPerSecond[i];
+            record[measuredAngles + i] = Units.radiansToDegrees(modules.anglesRadians[i]);
+            record[desiredSpeeds + i] = modules.desiredSpeedsMetersPerSecond[i];
+            record[desiredAngles + i] = Units.radiansToDegrees(modules.desiredAnglesRadians[i]);
+            record[cosineScales + i] = modules.cosineScales[i];
+        }
+        record[gyroYaw] = gyroYawDegrees;
+        record[pose] = poseX;
+        record[pose + 1] = poseY;
+        record[pose + 2] = Units.radiansToDegrees(poseHeadingRadians);
+        record[compensation] = driveCompensation[0];
+        record[compensation + 1] = driveCompensation[1];
+        record[compensation + 2] = Units.radiansToDegrees(driveCompensation[2]);
+        record[loopTime] = loopTimeSeconds;
+        buffer.offer(RobotController.getFPGATime(), record);
+    }
+
+    /** @return Number of records dropped because the writer fell behind */
+    public long getDropped() {
+        return buffer.getDropped();
+    }
+
+    private void writeLoop() {
+        long periodNanos = (long) (Constants.Logging.writerPeriod * 1e9);
+        while(true){
+            long timestamp;
+            while((timestamp = buffer.poll(drainRecord)) >= 0){
+                appendModules(measuredSpeedsEntry, measuredSpeeds, timestamp);
+                appendModules(measuredAnglesEntry, measuredAngles, timestamp);
+                appendModules(desiredSpeedsEntry, desiredSpeeds, timestamp);
+                appendModules(desiredAnglesEntry, desiredAngles, timestamp);
+                gyroYawEntry.append(drainRecord[gyroYaw], timestamp);
+                System.arraycopy(drainRecord, pose, poseScratch, 0, 3);
+                poseEntry.append(poseScratch, timestamp);
+                System.arraycopy(drainRecord, compensation, discretizationScratch, 0, 2);
+                discretizationEntry.append(discretizationScratch, timestamp);
+                lookaheadEntry.append(drainRecord[compensation + 2], timestamp);
+                appendModules(cosineScalesEntry, cosineScales, timestamp);
+                loopTimeEntry.append(drainRecord[loopTime], timestamp);
+            }
+
+            long dropped = buffer.getDropped();
+            if(dropped != lastDropped){
+                droppedEntry.append(dropped);
+                lastDropped = dropped;
+            }
+            LockSupport.parkNanos(periodNanos);
+        }
+    }
+
+    private void appendModules(DoubleArrayLogEntry entry, int offset, long timestamp) {
+        System.arraycopy(drainRecord, offset, moduleScratch, 0, moduleCount);
+        entry.append(moduleScratch, timestamp);
+    }
+}
@@ -1,92 +1,284 @@
 package frc.robot;
 
-import com.ctre.phoenix6.controls.DutyCycleOut;
-import com.ctre.phoenix6.controls.PositionVoltage;
-import com.ctre.phoenix6.controls.VelocityVoltage;
-import com.ctre.phoenix6.hardware.CANcoder;
-import com.ctre.phoenix6.hardware.TalonFX;
-
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
 import frc.lib.math.Conversions;
+import frc.lib.math.PrimitiveSwerveKinematics;
+import frc.lib.util.DeviceConfigurator;
 import frc.lib.util.SwerveModuleConstants;
+import frc.robot.io.InputRecorder;
+import frc.robot.io.ModuleIO;
 
 public class SwerveModule {
     public int moduleNumber;
     private Rotation2d angleOffset;
 
-    private TalonFX mAngleMotor;
-    private TalonFX mDriveMotor;
-    private CANcoder angleEncoder;
+    private final ModuleIO io;
+    /* Inputs read once per loop by the Swerve subsystem */
+    private final ModuleIO.ModuleIOInputs inputs = new ModuleIO.ModuleIOInputs();
+    private final InputRecorder recorder;
 
     private final SimpleMotorFeedforward driveFeedForward = new SimpleMotorFeedforward(Constants.Swerve.driveKS, Constants.Swerve.driveKV, Constants.Swerve.driveKA);
 
-    /* drive motor control requests */
-    private final DutyCycleOut driveDutyCycle = new DutyCycleOut(0);
-    private final VelocityVoltage driveVelocity = new VelocityVoltage(0);
+    /* Last commanded setpoint, after optimization */
+    private double desiredSpeedMetersPerSecond = 0.0;
+    private double desiredAngleRadians = 0.0;
+    /* Cosine of the steer error the last drive speed was scaled by, see Constants.DriveCompensation */
+    private double cosineScale = 1.0;
+
+    /* Module angle of the current inputs, only recreated when the angle changes */
+    private Rotation2d angle = new Rotation2d();
 
-    /* angle motor control requests */
-    private final PositionVoltage anglePosition = new PositionVoltage(0);
+    /* Absolute encoder seeding and stationary re-sync, see Constants.Seeding */
+    private boolean seeded = false;
+    private double seedRequestTime = Double.NaN;
+    private int agreeingSamples = 0;
+    private double lastAbsoluteRotations = 0.0;
+    private double lastAbsoluteTimestamp = Double.NaN;
+    private double lastAngleRotations = 0.0;
+    private double stationarySince = Double.NaN;
+    private long resyncCount = 0;
 
-    public SwerveModule(int moduleNumber, SwerveModuleConstants moduleConstants){
+    public SwerveModule(int moduleNumber, SwerveModuleConstants moduleConstants, ModuleIO io){
         this.moduleNumber = moduleNumber;
         this.angleOffset = moduleConstants.angleOffset;
-        
-        /* Angle Encoder Config */
-        angleEncoder = new CANcoder(moduleConstants.cancoderID);
-        angleEncoder.getConfigurator().apply(Robot.ctreConfigs.swerveCANcoderConfig);
+        this.io = io;
+        recorder = new InputRecorder(ModuleIO.channel(moduleNumber));
+    }
 
-        /* Angle Motor Config */
-        mAngleMotor = new TalonFX(moduleConstants.angleMotorID);
-        mAngleMotor.getConfigurator().apply(Robot.ctreConfigs.swerveAngleFXConfig);
-        resetToAbsolute();
+    /**
+     * Adds this module's devices to the configurator. Once it has applied them,
+     * {@link #resetToAbsolute()} must be called to seed the angle motor.
+     */
+    public void configure(DeviceConfigurator configurator){
+        io.configure(configurator);
+    }
 
-        /* Drive Motor Config */
-        mDriveMotor = new TalonFX(moduleConstants.driveMotorID);
-        mDriveMotor.getConfigurator().apply(Robot.ctreConfigs.swerveDriveFXConfig);
-        mDriveMotor.getConfigurator().setPosition(0.0);
+    /** Adds the signals this module reads and their update rates to the plan. */
+    public void addSignals(SignalPlan plan){
+        io.addSignals(plan);
+    }
+
+    /**
+     * Reads and records this module's inputs. The getters only see the inputs read here,
+     * so this must be called once per loop between {@link OdometryThread#beginDrain()} and {@link OdometryThread#endDrain()}.
+     * @param nowSeconds Time the readings are compensated to, the same for every module: (in Seconds)
+     */
+    public void updateInputs(double nowSeconds){
+        io.updateInputs(inputs, nowSeconds);
+        recorder.record(inputs);
     }
 
     public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop){
-        desiredState = SwerveModuleState.optimize(desiredState, getState().angle); 
-        mAngleMotor.setControl(anglePosition.withPosition(desiredState.angle.getRotations()));
-        setSpeed(desiredState, isOpenLoop);
+        setDesiredState(desiredState.speedMetersPerSecond, desiredState.angle.getRadians(), isOpenLoop);
+    }
+
+    /**
+     * Allocation free version of {@link #setDesiredState(SwerveModuleState, boolean)}.
+     * @param speedMetersPerSecond Desired Module Speed: (in Meters per Second)
+     * @param angleRadians Desired Module Angle: (in Radians)
+     * @param isOpenLoop Whether to drive with duty cycle instead of closed loop velocity
+     */
+    public void setDesiredState(double speedMetersPerSecond, double angleRadians, boolean isOpenLoop){
+        double currentAngleRadians = Units.rotationsToRadians(inputs.anglePositionRotations);
+        if(PrimitiveSwerveKinematics.shouldReverse(angleRadians, currentAngleRadians)){
+            speedMetersPerSecond = -speedMetersPerSecond;
+            angleRadians += Math.PI;
+        }
+        desiredSpeedMetersPerSecond = speedMetersPerSecond;
+        desiredAngleRadians = angleRadians;
+        /* After optimization the steer error is within a quarter turn, so the scale is never negative */
+        cosineScale = Constants.DriveCompensation.cosineScaling ? Math.cos(angleRadians - currentAngleRadians) : 1.0;
+        if(!seeded){
+            /* The angle motor does not know where the module points yet, so neither motor may keep its last request */
+            io.setNeutral();
+            return;
+        }
+        io.setAnglePosition(Units.radiansToRotations(angleRadians));
+        setSpeed(speedMetersPerSecond * cosineScale, isOpenLoop);
     }
 
-    private void setSpeed(SwerveModuleState desiredState, boolean isOpenLoop){
+    private void setSpeed(double speedMetersPerSecond, boolean isOpenLoop){
         if(isOpenLoop){
-            driveDutyCycle.Output = desiredState.speedMetersPerSecond / Constants.Swerve.maxSpeed;
-            mDriveMotor.setControl(driveDutyCycle);
+            io.setDriveDutyCycle(speedMetersPerSecond / Constants.Swerve.maxSpeed);
         }
         else {
-            driveVelocity.Velocity = Conversions.MPSToRPS(desiredState.speedMetersPerSecond, Constants.Swerve.wheelCircumference);
-            driveVelocity.FeedForward = driveFeedForward.calculate(desiredState.speedMetersPerSecond);
-            mDriveMotor.setControl(driveVelocity);
+            io.setDriveVelocity(
+                Conversions.MPSToRPS(speedMetersPerSecond, Constants.Swerve.wheelCircumference),
+                driveFeedForward.calculate(speedMetersPerSecond));
         }
     }
 
     public Rotation2d getCANcoder(){
-        return Rotation2d.fromRotations(angleEncoder.getAbsolutePosition().getValue());
+        return Rotation2d.fromRotations(inputs.absolutePositionRotations);
     }
 
+    /**
+     * Starts seeding the angle motor from the absolute encoder. This does not block: {@link #updateSeeding}
+     * seeds the module once the encoder has reported fresh, valid readings that agree, and the module
+     * ignores desired states until then.
+     */
     public void resetToAbsolute(){
-        double absolutePosition = getCANcoder().getRotations() - angleOffset.getRotations();
-        mAngleMotor.setPosition(absolutePosition);
+        seeded = false;
+        seedRequestTime = Double.NaN;
+        agreeingSamples = 0;
+    }
+
+    /**
+     * Advances seeding and the stationary re-sync with this loop's inputs. Call once per loop after {@link #updateInputs(double)}.
+     * @param timestampSeconds Current Time: (in Seconds, FPGA time)
+     */
+    public void updateSeeding(double timestampSeconds){
+        if(!inputs.absolutePositionValid){
+            agreeingSamples = 0;
+        }
+        else if(inputs.absolutePositionTimestampSeconds != lastAbsoluteTimestamp){
+            /* The CANcoder reports slower than the loop runs, so only a new frame is a new sample */
+            double change = MathUtil.inputModulus(inputs.absolutePositionRotations - lastAbsoluteRotations, -0.5, 0.5);
+            agreeingSamples = agreeingSamples > 0 && Math.abs(change) <= Constants.Seeding.agreementTolerance ? agreeingSamples + 1 : 1;
+            lastAbsoluteRotations = inputs.absolutePositionRotations;
+            lastAbsoluteTimestamp = inputs.absolutePositionTimestampSeconds;
+        }
+
+        if(!seeded){
+            if(Double.isNaN(seedRequestTime)){
+                seedRequestTime = timestampSeconds;
+            }
+            if(agreeingSamples >= Constants.Seeding.requiredSamples){
+                seedFromAbsolute();
+            }
+            else if(timestampSeconds - seedRequestTime >= Constants.Seeding.timeout){
+                DriverStation.reportWarning("Mod " + moduleNumber + " seeded from an unconfirmed absolute reading after "
+                    + Constants.Seeding.timeout + " s, check the CANcoder", false);
+                seedFromAbsolute();
+            }
+        }
+        else if(Constants.Seeding.resyncWhenStationary){
+            updateResync(timestampSeconds);
+        }
+        lastAngleRotations = inputs.anglePositionRotations;
+    }
+
+    private void seedFromAbsolute(){
+        io.resetAnglePosition(getAbsoluteAngleRotations());
+        seeded = true;
+        stationarySince = Double.NaN;
+    }
+
+    /* Corrects steer drift against the absolute encoder once the module has been still for a while */
+    private void updateResync(double timestampSeconds){
+        boolean stationary = Math.abs(getSpeedMetersPerSecond()) < Constants.Seeding.stationarySpeed
+            && Math.abs(inputs.anglePositionRotations - lastAngleRotations) < Constants.Seeding.agreementTolerance;
+        if(!stationary){
+            stationarySince = Double.NaN;
+            return;
+        }
+        if(Double.isNaN(stationarySince)){
+            stationarySince = timestampSeconds;
+        }
+        if(timestampSeconds - stationarySince < Constants.Seeding.stationaryTime || agreeingSamples < Constants.Seeding.requiredSamples){
+            return;
+        }
+
+        double error = MathUtil.inputModulus(getAbsoluteAngleRotations() - inputs.anglePositionRotations, -0.5, 0.5);
+        if(Math.abs(error) > Constants.Seeding.resyncTolerance){
+            /* Keeps the angle motor's position continuous, only the drift is removed */
+            io.resetAnglePosition(inputs.anglePositionRotations + error);
+            resyncCount++;
+            DataLogManager.log("Mod " + moduleNumber + " angle re-synced by " + Units.rotationsToDegrees(error) + " deg");
+        }
+        stationarySince = Double.NaN;
+    }
+
+    /* Module angle from the absolute encoder with the offset removed (in Rotations) */
+    private double getAbsoluteAngleRotations(){
+        return getCANcoder().getRotations() - angleOffset.getRotations();
+    }
+
+    public boolean isSeeded(){
+        return seeded;
+    }
+
+    public long getResyncCount(){
+        return resyncCount;
+    }
+
+    /* Primitive readings of the inputs and last setpoint, for allocation free logging */
+    public double getSpeedMetersPerSecond(){
+        return Conversions.RPSToMPS(inputs.driveVelocityRotationsPerSecond, Constants.Swerve.wheelCircumference);
+    }
+
+    public double getAngleRadians(){
+        return Units.rotationsToRadians(inputs.anglePositionRotations);
+    }
+
+    public double getDesiredSpeedMetersPerSecond(){
+        return desiredSpeedMetersPerSecond;
+    }
+
+    public double getDesiredAngleRadians(){
+        return desiredAngleRadians;
+    }
+
+    /** @return Cosine of the steer error the last desired speed was scaled by, 1 when cosine scaling is off */
+    public double getCosineScale(){
+        return cosineScale;
+    }
+
+    public Rotation2d getAngle(){
+        double radians = Units.rotationsToRadians(inputs.anglePositionRotations);
+        if(angle.getRadians() != radians){
+            angle = new Rotation2d(radians);
+        }
+        return angle;
     }
 
     public SwerveModuleState getState(){
-        return new SwerveModuleState(
-            Conversions.RPSToMPS(mDriveMotor.getVelocity().getValue(), Constants.Swerve.wheelCircumference), 
-            Rotation2d.fromRotations(mAngleMotor.getPosition().getValue())
-        );
+        return getState(new SwerveModuleState());
+    }
+
+    /**
+     * Fills a caller owned state instead of allocating one.
+     * @return The given state
+     */
+    public SwerveModuleState getState(SwerveModuleState state){
+        state.speedMetersPerSecond = getSpeedMetersPerSecond();
+        state.angle = getAngle();
+        return state;
     }
 
     public SwerveModulePosition getPosition(){
-        return new SwerveModulePosition(
-            Conversions.rotationsToMeters(mDriveMotor.getPosition().getValue(), Constants.Swerve.wheelCircumference), 
-            Rotation2d.fromRotations(mAngleMotor.getPosition().getValue())
-        );
+        return getPosition(new SwerveModulePosition());
+    }
+
+    /**
+     * Fills a caller owned position instead of allocating one.
+     * @return The given position
+     */
+    public SwerveModulePosition getPosition(SwerveModulePosition position){
+        position.distanceMeters = Conversions.rotationsToMeters(inputs.drivePositionRotations, Constants.Swerve.wheelCircumference);
+        position.angle = getAngle();
+        return position;
+    }
+
+    /* Odometry samples taken since the last loop, oldest first */
+    public int getOdometrySampleCount(){
+        return inputs.odometrySampleCount;
+    }
+
+    /** @return Module Distance of an odometry sample: (in Meters) */
+    public double getOdometryDistanceMeters(int sample){
+        return Conversions.rotationsToMeters(inputs.odometryDrivePositionsRotations[sample], Constants.Swerve.wheelCircumference);
+    }
+
+    /** @return Module Angle of an odometry sample: (in Radians) */
+    public double getOdometryAngleRadians(int sample){
+        return Units.rotationsToRadians(inputs.odometryAnglePositionsRotations[sample]);
     }
-}
\ No newline at end of file
+}
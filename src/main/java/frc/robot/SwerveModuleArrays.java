@@ -0,0 +1,34 @@
+package frc.robot;
+
+import java.util.Arrays;
+
+/**
+ * The drivetrain's per module readings and setpoints as primitive arrays, indexed by module number.
+ * Swerve refills the readings once per loop from the inputs and the setpoints whenever the modules are commanded,
+ * and logging and telemetry read them from here.
+ */
+public class SwerveModuleArrays {
+    /** Measured Module Speeds: (in Meters per Second) */
+    public final double[] speedsMetersPerSecond;
+    /** Measured Module Angles: (in Radians) */
+    public final double[] anglesRadians;
+    /** Last commanded Module Speeds, after optimization and before cosine scaling: (in Meters per Second) */
+    public final double[] desiredSpeedsMetersPerSecond;
+    /** Last commanded Module Angles, after optimization: (in Radians) */
+    public final double[] desiredAnglesRadians;
+    /** Cosine of the steer error each desired speed was scaled by, 1 when cosine scaling is off */
+    public final double[] cosineScales;
+
+    public SwerveModuleArrays(int moduleCount) {
+        speedsMetersPerSecond = new double[moduleCount];
+        anglesRadians = new double[moduleCount];
+        desiredSpeedsMetersPerSecond = new double[moduleCount];
+        desiredAnglesRadians = new double[moduleCount];
+        cosineScales = new double[moduleCount];
+        Arrays.fill(cosineScales, 1.0);
+    }
+
+    public int getModuleCount() {
+        return speedsMetersPerSecond.length;
+    }
+}
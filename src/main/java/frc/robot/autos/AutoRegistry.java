@@ -0,0 +1,167 @@
+package frc.robot.autos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+
+/**
+ * Builds every autonomous routine ahead of time and caches the ready to run commands, so selecting
+ * the auto in autonomousInit is a map lookup.
+ *
+ * <p>Trajectories are loaded on a background thread started by {@link #prepare()}. Commands are not
+ * thread safe to compose, so they are assembled on the main thread by {@link #periodic()} once every
+ * trajectory is loaded.
+ */
+public class AutoRegistry {
+    private static class Routine {
+        final String name;
+        final String[] trajectoryNames;
+        final Function<Trajectory[], Command> factory;
+
+        Routine(String name, String[] trajectoryNames, Function<Trajectory[], Command> factory) {
+            this.name = name;
+            this.trajectoryNames = trajectoryNames;
+            this.factory = factory;
+        }
+    }
+
+    private final List<Routine> routines = new ArrayList<>();
+    private final Map<String, Trajectory> trajectories = new HashMap<>();
+    private final Map<String, Command> commands = new HashMap<>();
+    private final SendableChooser<String> chooser = new SendableChooser<>();
+
+    private Thread preparationThread;
+    private volatile boolean trajectoriesLoaded = false;
+    private boolean commandsBuilt = false;
+
+    /**
+     * Registers a routine. The first routine registered is the default selection.
+     * @param factory Creates the routine's command from its trajectories, in the order they are named
+     * @param trajectoryNames Names of the trajectories in {@link AutoTrajectories} this routine follows
+     */
+    public void register(String name, Function<Trajectory[], Command> factory, String... trajectoryNames) {
+        if(preparationThread != null){
+            throw new IllegalStateException("Routines must be registered before prepare() is called");
+        }
+        routines.add(new Routine(name, trajectoryNames, factory));
+        if(routines.size() == 1){
+            chooser.setDefaultOption(name, name);
+        }
+        else {
+            chooser.addOption(name, name);
+        }
+    }
+
+    /** Publishes the chooser and starts loading every trajectory in the background. */
+    public void prepare() {
+        SmartDashboard.putData("Auto Routine", chooser);
+
+        preparationThread = new Thread(() -> {
+            for(Routine routine : routines){
+                for(String trajectoryName : routine.trajectoryNames){
+                    if(!trajectories.containsKey(trajectoryName)){
+                        trajectories.put(trajectoryName, AutoTrajectories.load(trajectoryName));
+                    }
+                }
+            }
+            /* Volatile write publishes the loaded trajectories to the main thread */
+            trajectoriesLoaded = true;
+        }, "AutoPreparation");
+        preparationThread.setDaemon(true);
+        preparationThread.start();
+    }
+
+    /** Assembles the cached commands once the trajectories are loaded. Call from the main robot loop. */
+    public void periodic() {
+        if(commandsBuilt || !trajectoriesLoaded){
+            return;
+        }
+        for(Routine routine : routines){
+            Trajectory[] routineTrajectories = new Trajectory[routine.trajectoryNames.length];
+            for(int i = 0; i < routineTrajectories.length; i++){
+                routineTrajectories[i] = trajectories.get(routine.trajectoryNames[i]);
+            }
+            commands.put(routine.name, routine.factory.apply(routineTrajectories));
+        }
+        commandsBuilt = true;
+    }
+
+    public boolean isReady() {
+        return commandsBuilt;
+    }
+
+    /** @return Number of registered routines */
+    public int getRoutineCount() {
+        return routines.size();
+    }
+
+    /** @param index Index of the routine in registration order */
+    public String getName(int index) {
+        return routines.get(index).name;
+    }
+
+    /**
+     * @param index Index of the routine in registration order
+     * @return The routine's trajectories in the order it follows them, or null until {@link #isReady()}
+     */
+    public Trajectory[] getTrajectories(int index) {
+        if(!commandsBuilt){
+            return null;
+        }
+        Routine routine = routines.get(index);
+        Trajectory[] routineTrajectories = new Trajectory[routine.trajectoryNames.length];
+        for(int i = 0; i < routineTrajectories.length; i++){
+            routineTrajectories[i] = trajectories.get(routine.trajectoryNames[i]);
+        }
+        return routineTrajectories;
+    }
+
+    /** @return Index of the routine selected on the dashboard, in registration order, or -1 if none is */
+    public int getSelectedIndex() {
+        String selected = chooser.getSelected();
+        for(int i = 0; i < routines.size(); i++){
+            if(routines.get(i).name.equals(selected)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** @return The cached command for the routine selected on the dashboard, see {@link #get(int)} */
+    public Command getSelected() {
+        return get(getSelectedIndex());
+    }
+
+    /**
+     * @param index Index of the routine in registration order, such as a recorded {@link #getSelectedIndex()}
+     * @return The cached command for the routine, or null for an index that is not registered. If autonomous
+     * starts before preparation finished, waits for it and builds the commands immediately.
+     */
+    public Command get(int index) {
+        if(index < 0 || index >= routines.size()){
+            return null;
+        }
+        if(!commandsBuilt){
+            DriverStation.reportWarning("Autonomous started before routines were prepared", false);
+            if(preparationThread == null){
+                prepare();
+            }
+            try {
+                preparationThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            periodic();
+        }
+        return commands.get(routines.get(index).name);
+    }
+}
@@ -0,0 +1,65 @@
+package frc.robot.autos;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.lib.util.MappedTrajectory;
+
+/**
+ * Every autonomous trajectory, by name. Every deploy first runs {@code ./gradlew bakeTrajectories} to generate
+ * them into build/deploy/trajectories and then copies them to the robot, which maps the baked files
+ * instead of generating splines at runtime. Without baked files, such as in simulation, they are generated.
+ */
+public final class AutoTrajectories {
+    public static final Map<String, Supplier<Trajectory>> generators = Map.of(
+        "exampleAuto", exampleAuto::generateTrajectory
+    );
+
+    /* Deploy subdirectory and extension of the baked trajectory files */
+    public static final String directory = "trajectories";
+    public static final String extension = ".traj";
+
+    private AutoTrajectories() {}
+
+    /**
+     * Loads a baked trajectory from the deploy directory. Falls back to generating it, with a warning,
+     * if the file is missing or unreadable.
+     */
+    public static Trajectory load(String name) {
+        Path file = bakedFile(Filesystem.getDeployDirectory(), name);
+        if(Files.exists(file)){
+            try {
+                return MappedTrajectory.load(file);
+            } catch (IOException e) {
+                DriverStation.reportWarning("Failed to load trajectory " + name + ": " + e.getMessage(), false);
+            }
+        }
+        else {
+            DriverStation.reportWarning("Trajectory " + name + " was not baked, generating it", false);
+        }
+        return generators.get(name).get();
+    }
+
+    public static Path bakedFile(File deployDirectory, String name) {
+        return deployDirectory.toPath().resolve(directory).resolve(name + extension);
+    }
+
+    /** Bakes every trajectory into the deploy directory given as the first argument. */
+    public static void main(String[] args) throws IOException {
+        File deployDirectory = new File(args[0]);
+        for(Map.Entry<String, Supplier<Trajectory>> entry : generators.entrySet()){
+            Trajectory trajectory = entry.getValue().get();
+            Path file = bakedFile(deployDirectory, entry.getKey());
+            MappedTrajectory.write(trajectory, file);
+            System.out.printf("Baked %s: %d states, %.2f s -> %s%n",
+                entry.getKey(), trajectory.getStates().size(), trajectory.getTotalTimeSeconds(), file);
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package frc.robot.commands;
 
 import frc.robot.Constants;
+import frc.robot.InputLatencyTracer;
+import frc.robot.LoopProfiler;
 import frc.robot.subsystems.Swerve;
 
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 
 import edu.wpi.first.math.MathUtil;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj2.command.Command;
 
 
@@ -30,17 +31,23 @@ public class TeleopSwerve extends Command {
 
     @Override
     public void execute() {
+        long start = LoopProfiler.start();
+
         /* Get Values, Deadband*/
         double translationVal = MathUtil.applyDeadband(translationSup.getAsDouble(), Constants.stickDeadband);
         double strafeVal = MathUtil.applyDeadband(strafeSup.getAsDouble(), Constants.stickDeadband);
         double rotationVal = MathUtil.applyDeadband(rotationSup.getAsDouble(), Constants.stickDeadband);
+        InputLatencyTracer.mark(InputLatencyTracer.Stage.DEADBAND);
 
         /* Drive */
         s_Swerve.drive(
-            new Translation2d(translationVal, strafeVal).times(Constants.Swerve.maxSpeed), 
+            translationVal * Constants.Swerve.maxSpeed, 
+            strafeVal * Constants.Swerve.maxSpeed, 
             rotationVal * Constants.Swerve.maxAngularVelocity, 
             !robotCentricSup.getAsBoolean(), 
             true
         );
+
+        LoopProfiler.stop(LoopProfiler.Phase.TELEOP_EXECUTE, start);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package frc.robot.io;
+
+/** Autonomous routine selected on the dashboard, so a replay runs the routine the robot ran. */
+public class AutoInputs implements LoggableInputs {
+    /** Name the auto selection is recorded under */
+    public static final String channel = "Auto";
+
+    /** Index of the selected routine in registration order, or -1 if none is selected */
+    public int selectedRoutine = -1;
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public void toArray(double[] values) {
+        values[0] = selectedRoutine;
+    }
+
+    @Override
+    public void fromArray(double[] values) {
+        selectedRoutine = (int) values[0];
+    }
+}
@@ -0,0 +1,39 @@
+package frc.robot.io;
+
+/** Driver controller values the robot code reads, already mapped to their robot meaning. */
+public class DriverInputs implements LoggableInputs {
+    /** Name the driver inputs are recorded under */
+    public static final String channel = "Driver";
+
+    /* Drive Controls (from -1 to 1) */
+    public double translation = 0.0;
+    public double strafe = 0.0;
+    public double rotation = 0.0;
+
+    /* Driver Buttons */
+    public boolean robotCentric = false;
+    public boolean zeroGyro = false;
+
+    @Override
+    public int size() {
+        return 5;
+    }
+
+    @Override
+    public void toArray(double[] values) {
+        values[0] = translation;
+        values[1] = strafe;
+        values[2] = rotation;
+        values[3] = robotCentric ? 1.0 : 0.0;
+        values[4] = zeroGyro ? 1.0 : 0.0;
+    }
+
+    @Override
+    public void fromArray(double[] values) {
+        translation = values[0];
+        strafe = values[1];
+        rotation = values[2];
+        robotCentric = values[3] != 0.0;
+        zeroGyro = values[4] != 0.0;
+    }
+}
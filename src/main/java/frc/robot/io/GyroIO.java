@@ -0,0 +1,57 @@
+package frc.robot.io;
+
+import frc.lib.util.DeviceConfigurator;
+import frc.robot.Constants;
+import frc.robot.SignalPlan;
+
+/** Reads the drivetrain gyro. */
+public interface GyroIO {
+    /** Name the gyro inputs are recorded under */
+    String channel = "Gyro";
+
+    class GyroIOInputs implements LoggableInputs {
+        /** Yaw, CCW+: (in Degrees) */
+        public double yawDegrees = 0.0;
+
+        /* Samples taken at the odometry frequency since the last loop, oldest first.
+         * Every module reports one position per sample, taken at the same time */
+        public int odometrySampleCount = 0;
+        /** Sample Times: (in Seconds, FPGA time) */
+        public final double[] odometryTimestamps = new double[Constants.Swerve.odometrySampleCapacity];
+        public final double[] odometryYawsDegrees = new double[Constants.Swerve.odometrySampleCapacity];
+
+        @Override
+        public int size() {
+            return 2 + 2 * odometrySampleCount;
+        }
+
+        @Override
+        public void toArray(double[] values) {
+            values[0] = yawDegrees;
+            values[1] = odometrySampleCount;
+            System.arraycopy(odometryTimestamps, 0, values, 2, odometrySampleCount);
+            System.arraycopy(odometryYawsDegrees, 0, values, 2 + odometrySampleCount, odometrySampleCount);
+        }
+
+        @Override
+        public void fromArray(double[] values) {
+            yawDegrees = values[0];
+            int recorded = (int) values[1];
+            odometrySampleCount = Math.min(recorded, odometryTimestamps.length);
+            System.arraycopy(values, 2, odometryTimestamps, 0, odometrySampleCount);
+            System.arraycopy(values, 2 + recorded, odometryYawsDegrees, 0, odometrySampleCount);
+        }
+    }
+
+    /**
+     * Reads the inputs. Signals added with {@link #addSignals} have already been refreshed by the plan this loop.
+     * @param nowSeconds Time every IO compensates its readings to this loop, from LatencyCompensation.now(): (in Seconds)
+     */
+    void updateInputs(GyroIOInputs inputs, double nowSeconds);
+
+    /** Adds the gyro configuration, if it has any. */
+    default void configure(DeviceConfigurator configurator) {}
+
+    /** Adds the signals the gyro reads and their update rates, if it has any. */
+    default void addSignals(SignalPlan plan) {}
+}
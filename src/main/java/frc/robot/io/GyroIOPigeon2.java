@@ -0,0 +1,63 @@
+package frc.robot.io;
+
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.Pigeon2Configuration;
+import com.ctre.phoenix6.hardware.Pigeon2;
+import com.ctre.phoenix6.sim.Pigeon2SimState;
+
+import frc.lib.util.DeviceConfigurator;
+import frc.lib.util.LatencyCompensation;
+import frc.robot.CTREConfigs;
+import frc.robot.Constants;
+import frc.robot.OdometryThread;
+import frc.robot.SignalPlan;
+
+/** Pigeon 2 gyro. */
+public class GyroIOPigeon2 implements GyroIO {
+    private final Pigeon2 gyro;
+    private final Pigeon2Configuration gyroConfig = new Pigeon2Configuration();
+    private final StatusSignal<Double> yawSignal;
+    /* Yaw rate, used to compensate the yaw for its latency */
+    private final StatusSignal<Double> yawRateSignal;
+
+    /* Yaw samples taken by the odometry thread, and when they were taken */
+    private final OdometryThread.SampleQueue yawQueue;
+    private final OdometryThread.SampleQueue timestampQueue;
+
+    public GyroIOPigeon2() {
+        gyro = new Pigeon2(Constants.Swerve.pigeonID, Constants.Swerve.canBus);
+        yawSignal = gyro.getYaw();
+        yawRateSignal = gyro.getAngularVelocityZWorld();
+        yawQueue = OdometryThread.getInstance().registerSignal(yawSignal, yawRateSignal);
+        timestampQueue = OdometryThread.getInstance().makeTimestampQueue();
+    }
+
+    @Override
+    public void configure(DeviceConfigurator configurator) {
+        configurator.add("Pigeon2",
+            CTREConfigs.applyStep("Pigeon2", gyro.getConfigurator(), gyroConfig,
+                timeout -> gyro.getConfigurator().apply(gyroConfig, timeout)),
+            timeout -> gyro.setYaw(0, timeout));
+    }
+
+    @Override
+    public void addSignals(SignalPlan plan) {
+        plan.add("Pigeon2", gyro, yawSignal, Constants.Swerve.odometryFrequency);
+        plan.add("Pigeon2", gyro, yawRateSignal, Constants.Swerve.odometryFrequency);
+    }
+
+    /** @return Sim state of the gyro, for simulating it */
+    public Pigeon2SimState getSimState() {
+        return gyro.getSimState();
+    }
+
+    @Override
+    public void updateInputs(GyroIOInputs inputs, double nowSeconds) {
+        inputs.yawDegrees = LatencyCompensation.extrapolate(
+            yawSignal, yawRateSignal, nowSeconds, Constants.Signals.maxCompensatedLatency);
+
+        int yawSamples = yawQueue.drainTo(inputs.odometryYawsDegrees);
+        int timestampSamples = timestampQueue.drainTo(inputs.odometryTimestamps);
+        inputs.odometrySampleCount = Math.min(yawSamples, timestampSamples);
+    }
+}
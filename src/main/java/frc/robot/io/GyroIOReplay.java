@@ -0,0 +1,22 @@
+package frc.robot.io;
+
+/** Plays back the recorded gyro inputs. */
+public class GyroIOReplay implements GyroIO {
+    private final ReplayLog log;
+
+    public GyroIOReplay(ReplayLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void updateInputs(GyroIOInputs inputs, double nowSeconds) {
+        double[] values = log.get(channel);
+        if(values != null){
+            inputs.fromArray(values);
+        }
+        else {
+            /* Nothing recorded this cycle, so there are no new odometry samples */
+            inputs.odometrySampleCount = 0;
+        }
+    }
+}
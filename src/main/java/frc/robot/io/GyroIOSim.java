@@ -0,0 +1,43 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import frc.lib.math.PrimitiveSwerveKinematics;
+import frc.robot.Constants;
+
+/** Integrates the chassis yaw rate implied by the simulated module states. */
+public class GyroIOSim implements GyroIO {
+    private final ModuleIOSim[] moduleSims;
+    private final PrimitiveSwerveKinematics kinematics = new PrimitiveSwerveKinematics(Constants.Swerve.moduleTranslations);
+    private final double[] moduleSpeeds;
+    private final double[] moduleAngles;
+
+    private double yawDegrees = 0.0;
+    private double lastTime = Double.NaN;
+
+    /** @param moduleSims Simulated modules, in module number order */
+    public GyroIOSim(ModuleIOSim[] moduleSims) {
+        this.moduleSims = moduleSims;
+        moduleSpeeds = new double[moduleSims.length];
+        moduleAngles = new double[moduleSims.length];
+    }
+
+    @Override
+    public void updateInputs(GyroIOInputs inputs, double nowSeconds) {
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTime) ? TimedRobot.kDefaultPeriod : now - lastTime;
+        lastTime = now;
+
+        for(int i = 0; i < moduleSims.length; i++){
+            moduleSpeeds[i] = moduleSims[i].getSpeedMetersPerSecond();
+            moduleAngles[i] = moduleSims[i].getAngleRadians();
+        }
+        kinematics.toChassisSpeeds(moduleSpeeds, moduleAngles);
+        yawDegrees += Math.toDegrees(kinematics.omegaRadiansPerSecond * dt);
+
+        inputs.yawDegrees = yawDegrees;
+        inputs.odometrySampleCount = 1;
+        inputs.odometryTimestamps[0] = now;
+        inputs.odometryYawsDegrees[0] = yawDegrees;
+    }
+}
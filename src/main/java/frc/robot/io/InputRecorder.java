@@ -0,0 +1,35 @@
+package frc.robot.io;
+
+import java.util.Arrays;
+
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Records one set of {@link LoggableInputs} into the DataLog every loop, under {@link #prefix} + name.
+ * A {@link ReplayLog} reads them back.
+ */
+public class InputRecorder {
+    public static final String prefix = "Inputs/";
+
+    private final DoubleArrayLogEntry entry;
+
+    /* One buffer per serialized length, so nothing is allocated once every length has been seen */
+    private double[][] buffers = new double[0][];
+
+    public InputRecorder(String name) {
+        entry = new DoubleArrayLogEntry(DataLogManager.getLog(), prefix + name);
+    }
+
+    public void record(LoggableInputs inputs) {
+        int size = inputs.size();
+        if(size >= buffers.length){
+            buffers = Arrays.copyOf(buffers, size + 1);
+        }
+        if(buffers[size] == null){
+            buffers[size] = new double[size];
+        }
+        inputs.toArray(buffers[size]);
+        entry.append(buffers[size]);
+    }
+}
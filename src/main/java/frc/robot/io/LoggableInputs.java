@@ -0,0 +1,16 @@
+package frc.robot.io;
+
+/**
+ * Inputs that are read once per robot loop, recorded into the DataLog, and can be restored
+ * from a recording so the same loop can be replayed without the hardware.
+ */
+public interface LoggableInputs {
+    /** @return Number of values {@link #toArray} writes for the current inputs */
+    int size();
+
+    /** Writes every input into the first {@link #size()} values of the array. */
+    void toArray(double[] values);
+
+    /** Restores every input from values written by {@link #toArray}. */
+    void fromArray(double[] values);
+}
@@ -0,0 +1,94 @@
+package frc.robot.io;
+
+import frc.lib.util.DeviceConfigurator;
+import frc.robot.Constants;
+import frc.robot.SignalPlan;
+
+/** Reads and commands the devices of one swerve module. Positions are in the mechanism frame, after gearing. */
+public interface ModuleIO {
+    class ModuleIOInputs implements LoggableInputs {
+        /** Wheel Position and Velocity: (in Rotations and Rotations per Second) */
+        public double drivePositionRotations = 0.0;
+        public double driveVelocityRotationsPerSecond = 0.0;
+        /** Module Angle from the angle motor: (in Rotations) */
+        public double anglePositionRotations = 0.0;
+        /** Module Angle from the absolute encoder, before the angle offset is removed: (in Rotations) */
+        public double absolutePositionRotations = 0.0;
+        /** Whether the absolute reading is fresh and the encoder trusts its magnet, so it can seed the angle motor */
+        public boolean absolutePositionValid = false;
+        /** Time the absolute reading was received, which only changes with a new CANcoder frame: (in Seconds) */
+        public double absolutePositionTimestampSeconds = 0.0;
+
+        /* Samples taken at the odometry frequency since the last loop, oldest first */
+        public int odometrySampleCount = 0;
+        public final double[] odometryDrivePositionsRotations = new double[Constants.Swerve.odometrySampleCapacity];
+        public final double[] odometryAnglePositionsRotations = new double[Constants.Swerve.odometrySampleCapacity];
+
+        @Override
+        public int size() {
+            return 7 + 2 * odometrySampleCount;
+        }
+
+        @Override
+        public void toArray(double[] values) {
+            values[0] = drivePositionRotations;
+            values[1] = driveVelocityRotationsPerSecond;
+            values[2] = anglePositionRotations;
+            values[3] = absolutePositionRotations;
+            values[4] = absolutePositionValid ? 1.0 : 0.0;
+            values[5] = absolutePositionTimestampSeconds;
+            values[6] = odometrySampleCount;
+            System.arraycopy(odometryDrivePositionsRotations, 0, values, 7, odometrySampleCount);
+            System.arraycopy(odometryAnglePositionsRotations, 0, values, 7 + odometrySampleCount, odometrySampleCount);
+        }
+
+        @Override
+        public void fromArray(double[] values) {
+            drivePositionRotations = values[0];
+            driveVelocityRotationsPerSecond = values[1];
+            anglePositionRotations = values[2];
+            absolutePositionRotations = values[3];
+            absolutePositionValid = values[4] != 0.0;
+            absolutePositionTimestampSeconds = values[5];
+            int recorded = (int) values[6];
+            odometrySampleCount = Math.min(recorded, odometryDrivePositionsRotations.length);
+            System.arraycopy(values, 7, odometryDrivePositionsRotations, 0, odometrySampleCount);
+            System.arraycopy(values, 7 + recorded, odometryAnglePositionsRotations, 0, odometrySampleCount);
+        }
+    }
+
+    /** @return Name the inputs of the given module are recorded under */
+    static String channel(int moduleNumber) {
+        return "Module" + moduleNumber;
+    }
+
+    /**
+     * Reads the inputs. Signals added with {@link #addSignals} have already been refreshed by the plan this loop.
+     * @param nowSeconds Time every IO compensates its readings to this loop, from LatencyCompensation.now(): (in Seconds)
+     */
+    void updateInputs(ModuleIOInputs inputs, double nowSeconds);
+
+    /** @param rotations Desired Module Angle, closed loop: (in Rotations) */
+    void setAnglePosition(double rotations);
+
+    /** @param output Drive Output: (from -1 to 1) */
+    void setDriveDutyCycle(double output);
+
+    /**
+     * @param rotationsPerSecond Desired Wheel Velocity, closed loop: (in Rotations per Second)
+     * @param feedforwardVolts Feedforward added to the closed loop output: (in Volts)
+     */
+    void setDriveVelocity(double rotationsPerSecond, double feedforwardVolts);
+
+    /** Stops both motors in their neutral mode, for when the module cannot be commanded. */
+    void setNeutral();
+
+    /** Seeds the angle motor's position without waiting for it to be applied. @param rotations Current Module Angle: (in Rotations) */
+    void resetAnglePosition(double rotations);
+
+    /** Adds the configuration of this module's devices, if it has any. */
+    default void configure(DeviceConfigurator configurator) {}
+
+    /** Adds the signals this module reads and their update rates, if it has any. */
+    default void addSignals(SignalPlan plan) {}
+}
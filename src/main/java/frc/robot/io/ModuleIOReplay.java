@@ -0,0 +1,39 @@
+package frc.robot.io;
+
+/** Plays back the recorded inputs of one module. Outputs go nowhere. */
+public class ModuleIOReplay implements ModuleIO {
+    private final ReplayLog log;
+    private final String channel;
+
+    public ModuleIOReplay(ReplayLog log, int moduleNumber) {
+        this.log = log;
+        channel = ModuleIO.channel(moduleNumber);
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs, double nowSeconds) {
+        double[] values = log.get(channel);
+        if(values != null){
+            inputs.fromArray(values);
+        }
+        else {
+            /* Nothing recorded this cycle, so there are no new odometry samples */
+            inputs.odometrySampleCount = 0;
+        }
+    }
+
+    @Override
+    public void setAnglePosition(double rotations) {}
+
+    @Override
+    public void setDriveDutyCycle(double output) {}
+
+    @Override
+    public void setDriveVelocity(double rotationsPerSecond, double feedforwardVolts) {}
+
+    @Override
+    public void setNeutral() {}
+
+    @Override
+    public void resetAnglePosition(double rotations) {}
+}
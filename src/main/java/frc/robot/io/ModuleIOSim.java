@@ -0,0 +1,129 @@
+package frc.robot.io;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.lib.math.Conversions;
+import frc.lib.util.SwerveModuleConstants;
+import frc.robot.Constants;
+
+/**
+ * Physics model of one swerve module, without any device sim states. A motor/wheel model and a
+ * motor/azimuth model are stepped in {@link Constants.Sim#period} increments, and the closed loops the
+ * TalonFXs would run (angle PID, drive kP plus feedforward) are recomputed every step. Simulated time
+ * drives the model, so it follows stepped timing.
+ */
+public class ModuleIOSim implements ModuleIO {
+    private final DCMotorSim driveSim = new DCMotorSim(Constants.Sim.driveMotor, Constants.Swerve.driveGearRatio, Constants.Sim.driveInertia);
+    private final DCMotorSim angleSim = new DCMotorSim(Constants.Sim.angleMotor, Constants.Swerve.angleGearRatio, Constants.Sim.angleInertia);
+    private final PIDController angleController = new PIDController(
+        Constants.Swerve.angleKP, Constants.Swerve.angleKI, Constants.Swerve.angleKD, Constants.Sim.period);
+
+    private final double angleOffsetRotations;
+    /* Angle motor position minus the simulated azimuth, set when the angle motor is seeded */
+    private double angleMotorOffsetRotations = 0.0;
+
+    /* Last commanded outputs */
+    private boolean angleClosedLoop = false;
+    private double angleSetpointRotations = 0.0;
+    private boolean driveClosedLoop = false;
+    private double driveDutyCycle = 0.0;
+    private double driveSetpointRotationsPerSecond = 0.0;
+    private double driveFeedforwardVolts = 0.0;
+
+    private double lastTime = Double.NaN;
+
+    public ModuleIOSim(SwerveModuleConstants moduleConstants) {
+        angleOffsetRotations = moduleConstants.angleOffset.getRotations();
+        angleController.enableContinuousInput(-0.5, 0.5);
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs, double nowSeconds) {
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTime) ? TimedRobot.kDefaultPeriod : now - lastTime;
+        lastTime = now;
+
+        double supplyVoltage = RobotController.getBatteryVoltage();
+        for(double remaining = dt; remaining > 1e-9; remaining -= Constants.Sim.period){
+            step(Math.min(remaining, Constants.Sim.period), supplyVoltage);
+        }
+
+        inputs.drivePositionRotations = driveSim.getAngularPositionRotations();
+        inputs.driveVelocityRotationsPerSecond = getDriveVelocityRotationsPerSecond();
+        inputs.anglePositionRotations = getAnglePositionRotations();
+        inputs.absolutePositionRotations = MathUtil.inputModulus(angleSim.getAngularPositionRotations() + angleOffsetRotations, -0.5, 0.5);
+        inputs.absolutePositionValid = true;
+        /* The model produces a new reading every loop */
+        inputs.absolutePositionTimestampSeconds = nowSeconds;
+
+        /* One odometry sample per loop, taken now */
+        inputs.odometrySampleCount = 1;
+        inputs.odometryDrivePositionsRotations[0] = inputs.drivePositionRotations;
+        inputs.odometryAnglePositionsRotations[0] = inputs.anglePositionRotations;
+    }
+
+    private void step(double dtSeconds, double supplyVoltage) {
+        double driveVolts = driveClosedLoop
+            ? driveFeedforwardVolts + Constants.Swerve.driveKP * (driveSetpointRotationsPerSecond - getDriveVelocityRotationsPerSecond())
+            : driveDutyCycle * supplyVoltage;
+        double angleVolts = angleClosedLoop ? angleController.calculate(getAnglePositionRotations(), angleSetpointRotations) : 0.0;
+
+        driveSim.setInputVoltage(MathUtil.clamp(driveVolts, -supplyVoltage, supplyVoltage));
+        angleSim.setInputVoltage(MathUtil.clamp(angleVolts, -supplyVoltage, supplyVoltage));
+        driveSim.update(dtSeconds);
+        angleSim.update(dtSeconds);
+    }
+
+    private double getDriveVelocityRotationsPerSecond() {
+        return driveSim.getAngularVelocityRadPerSec() / (2.0 * Math.PI);
+    }
+
+    private double getAnglePositionRotations() {
+        return angleSim.getAngularPositionRotations() + angleMotorOffsetRotations;
+    }
+
+    @Override
+    public void setAnglePosition(double rotations) {
+        angleClosedLoop = true;
+        angleSetpointRotations = rotations;
+    }
+
+    @Override
+    public void setDriveDutyCycle(double output) {
+        driveClosedLoop = false;
+        driveDutyCycle = output;
+    }
+
+    @Override
+    public void setDriveVelocity(double rotationsPerSecond, double feedforwardVolts) {
+        driveClosedLoop = true;
+        driveSetpointRotationsPerSecond = rotationsPerSecond;
+        driveFeedforwardVolts = feedforwardVolts;
+    }
+
+    @Override
+    public void setNeutral() {
+        angleClosedLoop = false;
+        driveClosedLoop = false;
+        driveDutyCycle = 0.0;
+    }
+
+    @Override
+    public void resetAnglePosition(double rotations) {
+        angleMotorOffsetRotations = rotations - angleSim.getAngularPositionRotations();
+    }
+
+    /** @return Simulated Wheel Speed: (in Meters per Second) */
+    public double getSpeedMetersPerSecond() {
+        return Conversions.RPSToMPS(getDriveVelocityRotationsPerSecond(), Constants.Swerve.wheelCircumference);
+    }
+
+    /** @return Simulated Module Angle, CCW+: (in Radians) */
+    public double getAngleRadians() {
+        return angleSim.getAngularPositionRad();
+    }
+}
@@ -0,0 +1,205 @@
+package frc.robot.io;
+
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.controls.ControlRequest;
+import com.ctre.phoenix6.controls.DutyCycleOut;
+import com.ctre.phoenix6.controls.NeutralOut;
+import com.ctre.phoenix6.controls.PositionVoltage;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.MagnetHealthValue;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.lib.util.ControlCoalescer;
+import frc.lib.util.DeviceConfigurator;
+import frc.lib.util.LatencyCompensation;
+import frc.lib.util.SwerveModuleConstants;
+import frc.robot.CTREConfigs;
+import frc.robot.Constants;
+import frc.robot.InputLatencyTracer;
+import frc.robot.OdometryThread;
+import frc.robot.Robot;
+import frc.robot.SignalPlan;
+import frc.robot.sim.SwerveModuleSim;
+
+/** Swerve module with two TalonFXs and a CANcoder. */
+public class ModuleIOTalonFX implements ModuleIO {
+    private final int moduleNumber;
+    private final Rotation2d angleOffset;
+
+    private final TalonFX mAngleMotor;
+    private final TalonFX mDriveMotor;
+    private final CANcoder angleEncoder;
+
+    /* Cached status signals, refreshed with the rest of the SignalPlan once per loop. Positions are compensated with their velocities */
+    private final StatusSignal<Double> drivePositionSignal;
+    private final StatusSignal<Double> driveVelocitySignal;
+    private final StatusSignal<Double> anglePositionSignal;
+    private final StatusSignal<Double> angleVelocitySignal;
+    private final StatusSignal<Double> absolutePositionSignal;
+    private final StatusSignal<MagnetHealthValue> magnetHealthSignal;
+    /* Only read for the InputLatencyTracer, when a trace sends or waits on this motor */
+    private final StatusSignal<Double> driveDutyCycleSignal;
+
+    /* Position samples taken by the odometry thread */
+    private final OdometryThread.SampleQueue drivePositionQueue;
+    private final OdometryThread.SampleQueue anglePositionQueue;
+
+    /* drive motor control requests */
+    private final DutyCycleOut driveDutyCycle = new DutyCycleOut(0);
+    private final VelocityVoltage driveVelocity = new VelocityVoltage(0);
+
+    /* angle motor control requests */
+    private final PositionVoltage anglePosition = new PositionVoltage(0);
+
+    /* sent to both motors while the module cannot be commanded */
+    private final NeutralOut neutral = new NeutralOut();
+
+    /* Skip control requests whose setpoints have not changed, see Constants.Outputs */
+    private final ControlCoalescer driveCoalescer = new ControlCoalescer(Constants.Outputs.driveEpsilon, Constants.Outputs.keepAliveLoops);
+    private final ControlCoalescer angleCoalescer = new ControlCoalescer(Constants.Outputs.angleEpsilon, Constants.Outputs.keepAliveLoops);
+
+    public ModuleIOTalonFX(int moduleNumber, SwerveModuleConstants moduleConstants){
+        this.moduleNumber = moduleNumber;
+        this.angleOffset = moduleConstants.angleOffset;
+
+        /* Angle Encoder */
+        angleEncoder = new CANcoder(moduleConstants.cancoderID, Constants.Swerve.canBus);
+        absolutePositionSignal = angleEncoder.getAbsolutePosition();
+        magnetHealthSignal = angleEncoder.getMagnetHealth();
+
+        /* Angle Motor */
+        mAngleMotor = new TalonFX(moduleConstants.angleMotorID, Constants.Swerve.canBus);
+        anglePositionSignal = mAngleMotor.getPosition();
+        angleVelocitySignal = mAngleMotor.getVelocity();
+
+        /* Drive Motor */
+        mDriveMotor = new TalonFX(moduleConstants.driveMotorID, Constants.Swerve.canBus);
+        drivePositionSignal = mDriveMotor.getPosition();
+        driveVelocitySignal = mDriveMotor.getVelocity();
+        driveDutyCycleSignal = mDriveMotor.getDutyCycle();
+
+        if(Constants.Outputs.coalesce){
+            /* One-shot frames are only transmitted when sent, so skipped requests save bus time */
+            driveDutyCycle.UpdateFreqHz = 0;
+            driveVelocity.UpdateFreqHz = 0;
+            anglePosition.UpdateFreqHz = 0;
+            neutral.UpdateFreqHz = 0;
+        }
+
+        drivePositionQueue = OdometryThread.getInstance().registerSignal(drivePositionSignal, driveVelocitySignal);
+        anglePositionQueue = OdometryThread.getInstance().registerSignal(anglePositionSignal, angleVelocitySignal);
+    }
+
+    @Override
+    public void configure(DeviceConfigurator configurator){
+        configurator.add(cancoderName(),
+            CTREConfigs.applyStep(cancoderName(), angleEncoder.getConfigurator(), Robot.ctreConfigs.swerveCANcoderConfig,
+                timeout -> angleEncoder.getConfigurator().apply(Robot.ctreConfigs.swerveCANcoderConfig, timeout)));
+        configurator.add(angleMotorName(),
+            CTREConfigs.applyStep(angleMotorName(), mAngleMotor.getConfigurator(), Robot.ctreConfigs.swerveAngleFXConfig,
+                timeout -> mAngleMotor.getConfigurator().apply(Robot.ctreConfigs.swerveAngleFXConfig, timeout)));
+        configurator.add(driveMotorName(),
+            CTREConfigs.applyStep(driveMotorName(), mDriveMotor.getConfigurator(), Robot.ctreConfigs.swerveDriveFXConfig,
+                timeout -> mDriveMotor.getConfigurator().apply(Robot.ctreConfigs.swerveDriveFXConfig, timeout)),
+            timeout -> mDriveMotor.getConfigurator().setPosition(0.0, timeout));
+    }
+
+    @Override
+    public void addSignals(SignalPlan plan){
+        plan.add(driveMotorName(), mDriveMotor, drivePositionSignal, Constants.Swerve.odometryFrequency);
+        plan.add(driveMotorName(), mDriveMotor, driveVelocitySignal, Constants.Swerve.odometryFrequency);
+        plan.add(driveMotorName(), mDriveMotor, driveDutyCycleSignal, Constants.Signals.controlFrequency);
+        plan.add(angleMotorName(), mAngleMotor, anglePositionSignal, Constants.Swerve.odometryFrequency);
+        plan.add(angleMotorName(), mAngleMotor, angleVelocitySignal, Constants.Swerve.odometryFrequency);
+        plan.add(cancoderName(), angleEncoder, absolutePositionSignal, Constants.Signals.absolutePositionFrequency);
+        plan.add(cancoderName(), angleEncoder, magnetHealthSignal, Constants.Signals.absolutePositionFrequency);
+    }
+
+    private String cancoderName(){
+        return "Mod " + moduleNumber + " CANcoder";
+    }
+
+    private String angleMotorName(){
+        return "Mod " + moduleNumber + " Angle Motor";
+    }
+
+    private String driveMotorName(){
+        return "Mod " + moduleNumber + " Drive Motor";
+    }
+
+    @Override
+    public void updateInputs(ModuleIOInputs inputs, double nowSeconds){
+        inputs.drivePositionRotations = LatencyCompensation.extrapolate(
+            drivePositionSignal, driveVelocitySignal, nowSeconds, Constants.Signals.maxCompensatedLatency);
+        inputs.driveVelocityRotationsPerSecond = driveVelocitySignal.getValue();
+        inputs.anglePositionRotations = LatencyCompensation.extrapolate(
+            anglePositionSignal, angleVelocitySignal, nowSeconds, Constants.Signals.maxCompensatedLatency);
+        inputs.absolutePositionRotations = absolutePositionSignal.getValue();
+        inputs.absolutePositionTimestampSeconds = absolutePositionSignal.getAllTimestamps().getSystemTimestamp().getTime();
+        MagnetHealthValue magnetHealth = magnetHealthSignal.getValue();
+        inputs.absolutePositionValid = absolutePositionSignal.getStatus().isOK()
+            && absolutePositionSignal.getTimestamp().getLatency() <= Constants.Seeding.maxSampleAge
+            && magnetHealth != MagnetHealthValue.Magnet_Red
+            && magnetHealth != MagnetHealthValue.Magnet_Invalid;
+
+        int driveSamples = drivePositionQueue.drainTo(inputs.odometryDrivePositionsRotations);
+        int angleSamples = anglePositionQueue.drainTo(inputs.odometryAnglePositionsRotations);
+        inputs.odometrySampleCount = Math.min(driveSamples, angleSamples);
+
+        if(InputLatencyTracer.isAwaitingAcknowledge(this)){
+            InputLatencyTracer.dutyCycleReported(driveDutyCycleSignal.getValue(), driveDutyCycleSignal.getTimestamp().getLatency());
+        }
+    }
+
+    @Override
+    public void setAnglePosition(double rotations){
+        if(shouldWrite(angleCoalescer, anglePosition, rotations, 0.0)){
+            mAngleMotor.setControl(anglePosition.withPosition(rotations));
+        }
+    }
+
+    @Override
+    public void setDriveDutyCycle(double output){
+        if(shouldWrite(driveCoalescer, driveDutyCycle, output, 0.0)){
+            driveDutyCycle.Output = output;
+            mDriveMotor.setControl(driveDutyCycle);
+            InputLatencyTracer.controlSent(this, output, driveDutyCycleSignal.getValue());
+        }
+    }
+
+    @Override
+    public void setDriveVelocity(double rotationsPerSecond, double feedforwardVolts){
+        if(shouldWrite(driveCoalescer, driveVelocity, rotationsPerSecond, feedforwardVolts)){
+            driveVelocity.Velocity = rotationsPerSecond;
+            driveVelocity.FeedForward = feedforwardVolts;
+            mDriveMotor.setControl(driveVelocity);
+        }
+    }
+
+    @Override
+    public void setNeutral(){
+        if(shouldWrite(driveCoalescer, neutral, 0.0, 0.0)){
+            mDriveMotor.setControl(neutral);
+        }
+        if(shouldWrite(angleCoalescer, neutral, 0.0, 0.0)){
+            mAngleMotor.setControl(neutral);
+        }
+    }
+
+    private static boolean shouldWrite(ControlCoalescer coalescer, ControlRequest request, double value, double secondaryValue){
+        return !Constants.Outputs.coalesce || coalescer.shouldWrite(request, value, secondaryValue);
+    }
+
+    /** @return A physics model driving this module's device sim states */
+    public SwerveModuleSim createSimulation(){
+        return new SwerveModuleSim(mDriveMotor, mAngleMotor, angleEncoder, angleOffset);
+    }
+
+    @Override
+    public void resetAnglePosition(double rotations){
+        /* Zero timeout sends the new position without blocking the loop on the acknowledgement */
+        mAngleMotor.setPosition(rotations, 0.0);
+    }
+}
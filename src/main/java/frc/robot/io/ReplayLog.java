@@ -0,0 +1,86 @@
+package frc.robot.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+
+/**
+ * Inputs recorded by {@link InputRecorder}s, read from a DataLog and split into robot loops.
+ * A loop starts at every record of the cycle channel, which is recorded first in every loop.
+ * Inputs recorded before the first loop, while the robot code was starting, are played back
+ * until the first call to {@link #advance()}.
+ */
+public class ReplayLog {
+    private final Map<String, double[]> startup = new HashMap<>();
+    private final List<Map<String, double[]>> cycles = new ArrayList<>();
+    private int cycle = -1;
+
+    /**
+     * @param path DataLog (.wpilog) file
+     * @param cycleChannel Name of the inputs recorded first in every loop
+     */
+    public ReplayLog(String path, String cycleChannel) throws IOException {
+        DataLogReader reader = new DataLogReader(path);
+        if(!reader.isValid()){
+            throw new IOException("Not a DataLog file: " + path);
+        }
+
+        Map<Integer, String> channels = new HashMap<>();
+        Map<String, double[]> current = startup;
+        for(DataLogRecord record : reader){
+            if(record.isStart()){
+                DataLogRecord.StartRecordData start = record.getStartData();
+                if(start.name.startsWith(InputRecorder.prefix) && start.type.equals("double[]")){
+                    channels.put(start.entry, start.name.substring(InputRecorder.prefix.length()));
+                }
+                continue;
+            }
+            if(record.isFinish()){
+                channels.remove(record.getFinishEntry());
+                continue;
+            }
+            if(record.isControl()){
+                continue;
+            }
+
+            String channel = channels.get(record.getEntry());
+            if(channel == null){
+                continue;
+            }
+            if(channel.equals(cycleChannel)){
+                current = new HashMap<>();
+                cycles.add(current);
+            }
+            current.put(channel, record.getDoubleArray());
+        }
+    }
+
+    /**
+     * Moves to the next recorded loop.
+     * @return False once every loop has been played back
+     */
+    public boolean advance() {
+        if(cycle + 1 >= cycles.size()){
+            return false;
+        }
+        cycle++;
+        return true;
+    }
+
+    /** @return Inputs recorded under the channel in the current loop, or null if there are none */
+    public double[] get(String channel) {
+        if(cycle < 0){
+            return startup.get(channel);
+        }
+        return cycles.get(cycle).get(channel);
+    }
+
+    public int getCycleCount() {
+        return cycles.size();
+    }
+}
@@ -0,0 +1,44 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+/** Loop time and Driver Station mode. Recorded first in every loop, so it marks where a loop starts in a replay. */
+public class RobotStateInputs implements LoggableInputs {
+    /** Name the robot state is recorded under */
+    public static final String channel = "Robot";
+
+    /** Loop Start Time: (in Seconds, FPGA time) */
+    public double timestampSeconds = 0.0;
+    public boolean enabled = false;
+    public boolean autonomous = false;
+    public boolean test = false;
+
+    public void update() {
+        timestampSeconds = Timer.getFPGATimestamp();
+        enabled = DriverStation.isEnabled();
+        autonomous = DriverStation.isAutonomous();
+        test = DriverStation.isTest();
+    }
+
+    @Override
+    public int size() {
+        return 4;
+    }
+
+    @Override
+    public void toArray(double[] values) {
+        values[0] = timestampSeconds;
+        values[1] = enabled ? 1.0 : 0.0;
+        values[2] = autonomous ? 1.0 : 0.0;
+        values[3] = test ? 1.0 : 0.0;
+    }
+
+    @Override
+    public void fromArray(double[] values) {
+        timestampSeconds = values[0];
+        enabled = values[1] != 0.0;
+        autonomous = values[2] != 0.0;
+        test = values[3] != 0.0;
+    }
+}
@@ -0,0 +1,104 @@
+package frc.robot.sim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.RobotContainer;
+import frc.robot.io.ReplayLog;
+import frc.robot.io.RobotStateInputs;
+
+/**
+ * Plays a DataLog recorded on the robot back through the unmodified robot code: the drivetrain runs on the
+ * recorded gyro and module inputs, the default command on the recorded driver inputs, autonomous runs the
+ * recorded auto selection, and every loop runs at its recorded time in stepped simulation timing, as fast
+ * as the code allows. The replayed loops are written to a new DataLog, including the recomputed inputs and
+ * drivetrain outputs, for comparison with the original.
+ *
+ * <p>Run with {@code ./gradlew replay -Plog=path/to/log.wpilog}.
+ */
+public final class ReplayRunner {
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2 || args[0].isEmpty()){
+            System.err.println("Usage: ReplayRunner <log.wpilog> <output directory>");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        ReplayLog log = new ReplayLog(input.toString(), RobotStateInputs.channel);
+
+        if(!HAL.initialize(500, 0)){
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        SimHooks.pauseTiming();
+        DataLogManager.start(args[1], "replay_" + input.getFileName());
+
+        RobotContainer container = new RobotContainer(log);
+        RobotStateInputs robotInputs = new RobotStateInputs();
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        Command autonomousCommand = null;
+        boolean wasAutonomous = false;
+        boolean wasTeleop = false;
+
+        long start = System.nanoTime();
+        double firstTimestamp = Double.NaN;
+        int cycles = 0;
+        while(log.advance()){
+            robotInputs.fromArray(log.get(RobotStateInputs.channel));
+            if(Double.isNaN(firstTimestamp)){
+                firstTimestamp = robotInputs.timestampSeconds;
+            }
+
+            /* Run the loop at the time it was recorded, in the recorded Driver Station mode */
+            double step = robotInputs.timestampSeconds - Timer.getFPGATimestamp();
+            if(step > 0.0){
+                SimHooks.stepTiming(step);
+            }
+            DriverStationSim.setEnabled(robotInputs.enabled);
+            DriverStationSim.setAutonomous(robotInputs.autonomous);
+            DriverStationSim.setTest(robotInputs.test);
+            DriverStationSim.notifyNewData();
+            DriverStation.refreshData();
+
+            /* Mode transitions, as in Robot.autonomousInit and Robot.teleopInit */
+            boolean autonomous = robotInputs.enabled && robotInputs.autonomous;
+            boolean teleop = robotInputs.enabled && !robotInputs.autonomous && !robotInputs.test;
+            if(autonomous && !wasAutonomous){
+                autonomousCommand = container.getAutonomousCommand();
+                if(autonomousCommand != null){
+                    autonomousCommand.schedule();
+                }
+            }
+            if(teleop && !wasTeleop && autonomousCommand != null){
+                autonomousCommand.cancel();
+            }
+            wasAutonomous = autonomous;
+            wasTeleop = teleop;
+
+            /* Same order as Robot.robotPeriodic */
+            container.updateInputs();
+            scheduler.run();
+            container.robotPeriodic();
+            cycles++;
+        }
+
+        double recordedSeconds = cycles > 0 ? robotInputs.timestampSeconds - firstTimestamp : 0.0;
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        Pose2d finalPose = container.getSwerve().getPose();
+        System.out.printf(
+            "Replayed %d loops (%.1f s recorded) in %.2f s, %.0fx real time. Final pose x %.3f m, y %.3f m, heading %.1f deg%n",
+            cycles, recordedSeconds, wallSeconds, recordedSeconds / Math.max(wallSeconds, 1e-9),
+            finalPose.getX(), finalPose.getY(), finalPose.getRotation().getDegrees());
+
+        DataLogManager.getLog().flush();
+        HAL.shutdown();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.sim;
+
+import com.ctre.phoenix6.sim.Pigeon2SimState;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import frc.lib.math.PrimitiveSwerveKinematics;
+import frc.robot.Constants;
+import frc.robot.io.GyroIOPigeon2;
+import frc.robot.io.ModuleIOTalonFX;
+
+/**
+ * Simulates the drivetrain's devices behind the TalonFX and Pigeon 2 IOs: steps every module's physics
+ * model and integrates the chassis yaw rate implied by the simulated module states into the Pigeon2 sim
+ * yaw. Runs on a Notifier at {@link Constants.Sim#period}. The devices' own simulation follows wall-clock
+ * time, so this is for interactive simulation; tests and replays use the Java models in ModuleIOSim.
+ */
+public class SwerveDriveSim {
+    private final SwerveModuleSim[] moduleSims;
+    private final PrimitiveSwerveKinematics kinematics = new PrimitiveSwerveKinematics(Constants.Swerve.moduleTranslations);
+    private final double[] moduleSpeeds;
+    private final double[] moduleAngles;
+    private final Pigeon2SimState gyroSimState;
+    private final Notifier notifier = new Notifier(this::update);
+
+    private double yawDegrees = 0.0;
+    private double lastTime = Double.NaN;
+
+    /** @param moduleIOs Module IOs, in module number order */
+    public SwerveDriveSim(ModuleIOTalonFX[] moduleIOs, GyroIOPigeon2 gyroIO) {
+        moduleSims = new SwerveModuleSim[moduleIOs.length];
+        moduleSpeeds = new double[moduleIOs.length];
+        moduleAngles = new double[moduleIOs.length];
+        for(int i = 0; i < moduleIOs.length; i++){
+            moduleSims[i] = moduleIOs[i].createSimulation();
+        }
+        gyroSimState = gyroIO.getSimState();
+        notifier.setName("SwerveDriveSim");
+    }
+
+    public void start() {
+        notifier.startPeriodic(Constants.Sim.period);
+    }
+
+    public synchronized void update() {
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTime) ? Constants.Sim.period : now - lastTime;
+        lastTime = now;
+        if(dt <= 0.0){
+            return;
+        }
+
+        double supplyVoltage = RobotController.getBatteryVoltage();
+        for(int i = 0; i < moduleSims.length; i++){
+            moduleSims[i].update(dt, supplyVoltage);
+            moduleSpeeds[i] = moduleSims[i].getSpeedMetersPerSecond();
+            moduleAngles[i] = moduleSims[i].getAngleRadians();
+        }
+
+        kinematics.toChassisSpeeds(moduleSpeeds, moduleAngles);
+        yawDegrees += Math.toDegrees(kinematics.omegaRadiansPerSecond * dt);
+        gyroSimState.setSupplyVoltage(supplyVoltage);
+        gyroSimState.setRawYaw(yawDegrees);
+    }
+}
@@ -0,0 +1,82 @@
+package frc.robot.sim;
+
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.InvertedValue;
+import com.ctre.phoenix6.signals.SensorDirectionValue;
+import com.ctre.phoenix6.sim.CANcoderSimState;
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.lib.math.Conversions;
+import frc.robot.Constants;
+
+/**
+ * Physics model of one swerve module's devices. Each update reads the voltages the simulated TalonFXs apply,
+ * steps a motor/wheel model and a motor/azimuth model, and writes the resulting rotor positions,
+ * rotor velocities and CANcoder position back into the Phoenix 6 sim states. Unlike
+ * {@link frc.robot.io.ModuleIOSim}, the closed loops, inverts, sensor to mechanism ratios and continuous
+ * wrap are those the devices are configured with.
+ *
+ * <p>The models run in the mechanism frame (CCW+ azimuth, forward+ wheel); the sim states are in the
+ * raw device frame, so the configured inverts are applied when crossing between them.
+ */
+public class SwerveModuleSim {
+    private final TalonFXSimState driveSimState;
+    private final TalonFXSimState angleSimState;
+    private final CANcoderSimState encoderSimState;
+    private final double angleOffsetRotations;
+
+    private final DCMotorSim driveSim = new DCMotorSim(Constants.Sim.driveMotor, Constants.Swerve.driveGearRatio, Constants.Sim.driveInertia);
+    private final DCMotorSim angleSim = new DCMotorSim(Constants.Sim.angleMotor, Constants.Swerve.angleGearRatio, Constants.Sim.angleInertia);
+
+    private final double driveSign = Constants.Swerve.driveMotorInvert == InvertedValue.Clockwise_Positive ? -1.0 : 1.0;
+    private final double angleSign = Constants.Swerve.angleMotorInvert == InvertedValue.Clockwise_Positive ? -1.0 : 1.0;
+    private final double encoderSign = Constants.Swerve.cancoderInvert == SensorDirectionValue.Clockwise_Positive ? -1.0 : 1.0;
+
+    public SwerveModuleSim(TalonFX driveMotor, TalonFX angleMotor, CANcoder angleEncoder, Rotation2d angleOffset) {
+        driveSimState = driveMotor.getSimState();
+        angleSimState = angleMotor.getSimState();
+        encoderSimState = angleEncoder.getSimState();
+        angleOffsetRotations = angleOffset.getRotations();
+    }
+
+    /**
+     * @param dtSeconds Time Step: (in Seconds)
+     * @param supplyVoltage Battery Voltage: (in Volts)
+     */
+    public void update(double dtSeconds, double supplyVoltage) {
+        driveSimState.setSupplyVoltage(supplyVoltage);
+        angleSimState.setSupplyVoltage(supplyVoltage);
+        encoderSimState.setSupplyVoltage(supplyVoltage);
+
+        driveSim.setInputVoltage(driveSign * driveSimState.getMotorVoltage());
+        angleSim.setInputVoltage(angleSign * angleSimState.getMotorVoltage());
+        driveSim.update(dtSeconds);
+        angleSim.update(dtSeconds);
+
+        double wheelRotations = driveSim.getAngularPositionRotations();
+        double wheelRPS = driveSim.getAngularVelocityRadPerSec() / (2.0 * Math.PI);
+        driveSimState.setRawRotorPosition(driveSign * wheelRotations * Constants.Swerve.driveGearRatio);
+        driveSimState.setRotorVelocity(driveSign * wheelRPS * Constants.Swerve.driveGearRatio);
+
+        double azimuthRotations = angleSim.getAngularPositionRotations();
+        double azimuthRPS = angleSim.getAngularVelocityRadPerSec() / (2.0 * Math.PI);
+        angleSimState.setRawRotorPosition(angleSign * azimuthRotations * Constants.Swerve.angleGearRatio);
+        angleSimState.setRotorVelocity(angleSign * azimuthRPS * Constants.Swerve.angleGearRatio);
+
+        encoderSimState.setRawPosition(encoderSign * (azimuthRotations + angleOffsetRotations));
+        encoderSimState.setVelocity(encoderSign * azimuthRPS);
+    }
+
+    /** @return Simulated Wheel Speed: (in Meters per Second) */
+    public double getSpeedMetersPerSecond() {
+        return Conversions.RPSToMPS(driveSim.getAngularVelocityRadPerSec() / (2.0 * Math.PI), Constants.Swerve.wheelCircumference);
+    }
+
+    /** @return Simulated Module Angle, CCW+: (in Radians) */
+    public double getAngleRadians() {
+        return angleSim.getAngularPositionRad();
+    }
+}
@@ -2,110 +2,393 @@ package frc.robot.subsystems;
 
 import frc.robot.SwerveModule;
 import frc.robot.Constants;
+import frc.robot.InputLatencyTracer;
+import frc.robot.LoopProfiler;
+import frc.robot.OdometryThread;
+import frc.robot.SignalPlan;
+import frc.robot.SwerveLogger;
+import frc.robot.SwerveModuleArrays;
+import frc.robot.io.GyroIO;
+import frc.robot.io.InputRecorder;
+import frc.robot.io.ModuleIO;
+import frc.lib.math.LatencyCompensatedPoseEstimator;
+import frc.lib.math.PrimitiveSwerveKinematics;
+import frc.lib.util.CSVPoseSource;
+import frc.lib.util.DeviceConfigurator;
+import frc.lib.util.LatencyCompensation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 
-import com.ctre.phoenix6.configs.Pigeon2Configuration;
-import com.ctre.phoenix6.hardware.Pigeon2;
-
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
 public class Swerve extends SubsystemBase {
-    public SwerveDriveOdometry swerveOdometry;
+    public LatencyCompensatedPoseEstimator poseEstimator;
     public SwerveModule[] mSwerveMods;
-    public Pigeon2 gyro;
+    private final PrimitiveSwerveKinematics kinematics = new PrimitiveSwerveKinematics(Constants.Swerve.moduleTranslations);
+
+    /* Gyro inputs, read once per loop at the start of periodic() */
+    private final GyroIO gyroIO;
+    private final GyroIO.GyroIOInputs gyroInputs = new GyroIO.GyroIOInputs();
+    private final InputRecorder gyroRecorder = new InputRecorder(GyroIO.channel);
+
+    /* Persistent module states and positions, refilled by the getters instead of reallocated */
+    private final SwerveModuleState[] moduleStates;
+    private final SwerveModulePosition[] modulePositions;
+
+    /* Module readings and setpoints as primitive arrays, for logging and telemetry */
+    private final SwerveModuleArrays moduleArrays;
+
+    /* Last odometry sample, reused every update and for pose resets */
+    private final double[] odometryDistances;
+    private final double[] odometryAngles;
+    private double odometryYawRadians;
 
-    public Swerve() {
-        gyro = new Pigeon2(Constants.Swerve.pigeonID);
-        gyro.getConfigurator().apply(new Pigeon2Configuration());
-        gyro.setYaw(0);
+    /* Compensation terms of the last drive call, logged each loop: (vx correction m/s, vy correction m/s, lookahead Radians) */
+    private final double[] driveCompensation = new double[3];
 
-        mSwerveMods = new SwerveModule[] {
-            new SwerveModule(0, Constants.Swerve.Mod0.constants),
-            new SwerveModule(1, Constants.Swerve.Mod1.constants),
-            new SwerveModule(2, Constants.Swerve.Mod2.constants),
-            new SwerveModule(3, Constants.Swerve.Mod3.constants)
-        };
+    /* Fastest module speed requested since the last reset, before desaturation (in Meters per Second) */
+    private double peakRequestedSpeed = 0.0;
 
-        swerveOdometry = new SwerveDriveOdometry(Constants.Swerve.swerveKinematics, getGyroYaw(), getModulePositions());
+    private SwerveLogger logger;
+    private double lastPeriodicTime = Timer.getFPGATimestamp();
+
+    /* Optional stand-in for off-board localization, see Constants.Swerve.poseSourceFile */
+    private CSVPoseSource poseSource;
+    private final CSVPoseSource.MeasurementConsumer poseMeasurementConsumer = this::addPoseMeasurement;
+
+    private final SignalPlan signalPlan;
+
+    /**
+     * @param gyroIO Gyro, simulated gyro or replayed gyro inputs
+     * @param moduleIOs Modules in module number order, matching {@link Constants.Swerve#modules}
+     */
+    public Swerve(GyroIO gyroIO, ModuleIO[] moduleIOs) {
+        this.gyroIO = gyroIO;
+
+        mSwerveMods = new SwerveModule[moduleIOs.length];
+        for(int i = 0; i < mSwerveMods.length; i++){
+            mSwerveMods[i] = new SwerveModule(i, Constants.Swerve.modules[i], moduleIOs[i]);
+        }
+        moduleStates = newModuleStates(mSwerveMods.length);
+        modulePositions = newModulePositions(mSwerveMods.length);
+        moduleArrays = new SwerveModuleArrays(mSwerveMods.length);
+        odometryDistances = new double[mSwerveMods.length];
+        odometryAngles = new double[mSwerveMods.length];
+
+        /* Configure every device at once instead of one blocking round trip after another */
+        DeviceConfigurator configurator = new DeviceConfigurator(
+            Constants.DeviceConfig.maxAttempts, Constants.DeviceConfig.timeout, Constants.DeviceConfig.retryBackoff);
+        gyroIO.configure(configurator);
+        for(SwerveModule mod : mSwerveMods){
+            mod.configure(configurator);
+        }
+        configurator.applyAll();
+
+        /* Only broadcast the signals the drivetrain reads, at the rates it reads them */
+        signalPlan = new SignalPlan();
+        gyroIO.addSignals(signalPlan);
+        for(SwerveModule mod : mSwerveMods){
+            mod.addSignals(signalPlan);
+        }
+        DeviceConfigurator signalConfigurator = new DeviceConfigurator(
+            Constants.DeviceConfig.maxAttempts, Constants.DeviceConfig.timeout, Constants.DeviceConfig.retryBackoff);
+        signalPlan.configure(signalConfigurator);
+        signalConfigurator.applyAll();
+
+        /* The angle motors are seeded in periodic() once the absolute encoders report fresh readings */
+        updateInputs();
+        resetModulesToAbsolute();
+
+        odometryYawRadians = Math.toRadians(gyroInputs.yawDegrees);
+        for(SwerveModule mod : mSwerveMods){
+            odometryDistances[mod.moduleNumber] = mod.getPosition().distanceMeters;
+            odometryAngles[mod.moduleNumber] = mod.getAngleRadians();
+        }
+        poseEstimator = new LatencyCompensatedPoseEstimator(
+            Constants.Swerve.moduleTranslations, getGyroYaw(), getModulePositions(newModulePositions(mSwerveMods.length)), new Pose2d(),
+            (int) Math.ceil(Constants.Swerve.poseHistorySeconds * Constants.Swerve.odometryFrequency),
+            Constants.Swerve.stateStdDevs, Constants.Swerve.measurementStdDevs);
+        poseEstimator.getOdometry().setSlipRejection(
+            Constants.SlipDetection.enabled, Constants.SlipDetection.speedTolerance, Constants.SlipDetection.relativeTolerance);
+        OdometryThread.getInstance().startIfRegistered();
+
+        logger = new SwerveLogger(mSwerveMods.length);
+
+        if(!Constants.Swerve.poseSourceFile.isEmpty()){
+            try {
+                poseSource = new CSVPoseSource(Path.of(Filesystem.getDeployDirectory().getPath(), Constants.Swerve.poseSourceFile));
+            } catch (IOException e) {
+                DriverStation.reportError("Failed to load pose source " + Constants.Swerve.poseSourceFile + ": " + e.getMessage(), false);
+            }
+        }
     }
 
     public void drive(Translation2d translation, double rotation, boolean fieldRelative, boolean isOpenLoop) {
-        SwerveModuleState[] swerveModuleStates =
-            Constants.Swerve.swerveKinematics.toSwerveModuleStates(
-                fieldRelative ? ChassisSpeeds.fromFieldRelativeSpeeds(
-                                    translation.getX(), 
-                                    translation.getY(), 
-                                    rotation, 
-                                    getHeading()
-                                )
-                                : new ChassisSpeeds(
-                                    translation.getX(), 
-                                    translation.getY(), 
-                                    rotation)
-                                );
-        SwerveDriveKinematics.desaturateWheelSpeeds(swerveModuleStates, Constants.Swerve.maxSpeed);
+        drive(translation.getX(), translation.getY(), rotation, fieldRelative, isOpenLoop);
+    }
+
+    /**
+     * Allocation free drive. Kinematics, desaturation and module optimization all work on preallocated arrays.
+     * The commanded speeds are compensated for latency and discretized first, see {@link Constants.DriveCompensation}.
+     * @param xSpeed Forward Velocity: (in Meters per Second)
+     * @param ySpeed Left Velocity: (in Meters per Second)
+     * @param rotation Angular Velocity, CCW+: (in Radians per Second)
+     */
+    public void drive(double xSpeed, double ySpeed, double rotation, boolean fieldRelative, boolean isOpenLoop) {
+        if(fieldRelative){
+            double heading = getHeadingRadians();
+            double cos = Math.cos(heading);
+            double sin = Math.sin(heading);
+            double robotX = xSpeed * cos + ySpeed * sin;
+            double robotY = -xSpeed * sin + ySpeed * cos;
+            xSpeed = robotX;
+            ySpeed = robotY;
+        }
+
+        /* Rotate the translation against the heading change expected before the modules respond */
+        double lookahead = rotation * Constants.DriveCompensation.angularVelocityLookahead;
+        if(lookahead != 0.0){
+            double cos = Math.cos(lookahead);
+            double sin = Math.sin(lookahead);
+            double robotX = xSpeed * cos + ySpeed * sin;
+            double robotY = -xSpeed * sin + ySpeed * cos;
+            xSpeed = robotX;
+            ySpeed = robotY;
+        }
+        driveCompensation[2] = lookahead;
+
+        /* Speeds that reach the pose exponential of the commanded twist after one loop, as in ChassisSpeeds.discretize */
+        driveCompensation[0] = 0.0;
+        driveCompensation[1] = 0.0;
+        if(Constants.DriveCompensation.discretize){
+            double dtheta = rotation * TimedRobot.kDefaultPeriod;
+            double halfDtheta = dtheta / 2.0;
+            double cosMinusOne = Math.cos(dtheta) - 1.0;
+            double halfThetaByTanOfHalfDtheta = Math.abs(cosMinusOne) < 1e-9
+                ? 1.0 - dtheta * dtheta / 12.0
+                : -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+            double discreteX = xSpeed * halfThetaByTanOfHalfDtheta + ySpeed * halfDtheta;
+            double discreteY = ySpeed * halfThetaByTanOfHalfDtheta - xSpeed * halfDtheta;
+            driveCompensation[0] = discreteX - xSpeed;
+            driveCompensation[1] = discreteY - ySpeed;
+            xSpeed = discreteX;
+            ySpeed = discreteY;
+        }
 
+        kinematics.toModuleStates(xSpeed, ySpeed, rotation);
+        for(double speed : kinematics.speeds){
+            peakRequestedSpeed = Math.max(peakRequestedSpeed, Math.abs(speed));
+        }
+        PrimitiveSwerveKinematics.desaturateWheelSpeeds(kinematics.speeds, Constants.Swerve.maxSpeed);
+        InputLatencyTracer.mark(InputLatencyTracer.Stage.KINEMATICS);
+
+        /* Every module together, so MODULE_OUTPUT is recorded once per loop */
+        long start = LoopProfiler.start();
         for(SwerveModule mod : mSwerveMods){
-            mod.setDesiredState(swerveModuleStates[mod.moduleNumber], isOpenLoop);
+            mod.setDesiredState(kinematics.speeds[mod.moduleNumber], kinematics.angles[mod.moduleNumber], isOpenLoop);
         }
+        LoopProfiler.stop(LoopProfiler.Phase.MODULE_OUTPUT, start);
+        updateSetpointArrays();
     }    
 
     /* Used by SwerveControllerCommand in Auto */
     public void setModuleStates(SwerveModuleState[] desiredStates) {
+        for(SwerveModuleState state : desiredStates){
+            peakRequestedSpeed = Math.max(peakRequestedSpeed, Math.abs(state.speedMetersPerSecond));
+        }
         SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, Constants.Swerve.maxSpeed);
+        /* Trajectory following already commands discrete module states */
+        Arrays.fill(driveCompensation, 0.0);
         
+        long start = LoopProfiler.start();
         for(SwerveModule mod : mSwerveMods){
             mod.setDesiredState(desiredStates[mod.moduleNumber], false);
         }
+        LoopProfiler.stop(LoopProfiler.Phase.MODULE_OUTPUT, start);
+        updateSetpointArrays();
+    }
+
+    private void updateSetpointArrays() {
+        for(SwerveModule mod : mSwerveMods){
+            moduleArrays.desiredSpeedsMetersPerSecond[mod.moduleNumber] = mod.getDesiredSpeedMetersPerSecond();
+            moduleArrays.desiredAnglesRadians[mod.moduleNumber] = mod.getDesiredAngleRadians();
+            moduleArrays.cosineScales[mod.moduleNumber] = mod.getCosineScale();
+        }
     }
 
+    /**
+     * @return Fastest module speed requested by drive or setModuleStates since {@link #resetPeakRequestedSpeed()},
+     * before desaturation. Above {@link Constants.Swerve#maxSpeed} the requests were scaled down: (in Meters per Second)
+     */
+    public double getPeakRequestedSpeed(){
+        return peakRequestedSpeed;
+    }
+
+    public void resetPeakRequestedSpeed(){
+        peakRequestedSpeed = 0.0;
+    }
+
+    /** @return The current module states, in a persistent array that every call refills. Copy it to keep it */
     public SwerveModuleState[] getModuleStates(){
-        SwerveModuleState[] states = new SwerveModuleState[4];
+        return getModuleStates(moduleStates);
+    }
+
+    /**
+     * Fills caller owned states, created with {@link #newModuleStates}.
+     * @return The given states
+     */
+    public SwerveModuleState[] getModuleStates(SwerveModuleState[] states){
         for(SwerveModule mod : mSwerveMods){
-            states[mod.moduleNumber] = mod.getState();
+            mod.getState(states[mod.moduleNumber]);
         }
         return states;
     }
 
+    /**
+     * Primitive version of {@link #getModuleStates()}.
+     * @param speedsMetersPerSecond Filled with the Module Speeds: (in Meters per Second)
+     * @param anglesRadians Filled with the Module Angles: (in Radians)
+     */
+    public void getModuleStates(double[] speedsMetersPerSecond, double[] anglesRadians){
+        System.arraycopy(moduleArrays.speedsMetersPerSecond, 0, speedsMetersPerSecond, 0, mSwerveMods.length);
+        System.arraycopy(moduleArrays.anglesRadians, 0, anglesRadians, 0, mSwerveMods.length);
+    }
+
+    /** @return This loop's module readings and the last setpoints, refilled in place. Copy them to keep them */
+    public SwerveModuleArrays getModuleArrays(){
+        return moduleArrays;
+    }
+
+    /** @return The current module positions, in a persistent array that every call refills. Copy it to keep it */
     public SwerveModulePosition[] getModulePositions(){
-        SwerveModulePosition[] positions = new SwerveModulePosition[4];
+        return getModulePositions(modulePositions);
+    }
+
+    /**
+     * Fills caller owned positions, created with {@link #newModulePositions}.
+     * @return The given positions
+     */
+    public SwerveModulePosition[] getModulePositions(SwerveModulePosition[] positions){
         for(SwerveModule mod : mSwerveMods){
-            positions[mod.moduleNumber] = mod.getPosition();
+            mod.getPosition(positions[mod.moduleNumber]);
+        }
+        return positions;
+    }
+
+    public static SwerveModuleState[] newModuleStates(int moduleCount){
+        SwerveModuleState[] states = new SwerveModuleState[moduleCount];
+        for(int i = 0; i < moduleCount; i++){
+            states[i] = new SwerveModuleState();
+        }
+        return states;
+    }
+
+    public static SwerveModulePosition[] newModulePositions(int moduleCount){
+        SwerveModulePosition[] positions = new SwerveModulePosition[moduleCount];
+        for(int i = 0; i < moduleCount; i++){
+            positions[i] = new SwerveModulePosition();
         }
         return positions;
     }
 
     public Pose2d getPose() {
-        return swerveOdometry.getPoseMeters();
+        return poseEstimator.getEstimatedPosition();
     }
 
     public void setPose(Pose2d pose) {
-        swerveOdometry.resetPosition(getGyroYaw(), getModulePositions(), pose);
+        poseEstimator.resetPosition(odometryYawRadians, odometryDistances, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Fuses an external pose measurement, such as from vision, captured in the past.
+     * @param timestampSeconds Time the measurement was captured: (in Seconds, FPGA time)
+     */
+    public void addPoseMeasurement(Pose2d measuredPose, double timestampSeconds) {
+        poseEstimator.addMeasurement(measuredPose, timestampSeconds);
+    }
+
+    /** @return Odometry samples in which the module was detected slipping, see {@link Constants.SlipDetection} */
+    public long getSlipCount(int moduleNumber){
+        return poseEstimator.getOdometry().getSlipCount(moduleNumber);
     }
 
     public Rotation2d getHeading(){
         return getPose().getRotation();
     }
 
+    /** Estimated Robot Heading, without creating a Rotation2d: (in Radians) */
+    public double getHeadingRadians(){
+        return poseEstimator.getEstimatedHeadingRadians();
+    }
+
     public void setHeading(Rotation2d heading){
-        swerveOdometry.resetPosition(getGyroYaw(), getModulePositions(), new Pose2d(getPose().getTranslation(), heading));
+        setPose(new Pose2d(getPose().getTranslation(), heading));
     }
 
     public void zeroHeading(){
-        swerveOdometry.resetPosition(getGyroYaw(), getModulePositions(), new Pose2d(getPose().getTranslation(), new Rotation2d()));
+        setPose(new Pose2d(getPose().getTranslation(), new Rotation2d()));
     }
 
     public Rotation2d getGyroYaw() {
-        return Rotation2d.fromDegrees(gyro.getYaw().getValue());
+        return Rotation2d.fromDegrees(gyroInputs.yawDegrees);
+    }
+
+    /**
+     * Reads and records the gyro and module inputs, so all getters see the same loop's inputs, including
+     * every odometry sample taken since the last loop.
+     */
+    public void updateInputs(){
+        long start = LoopProfiler.start();
+        /* One batched refresh of every signal the IOs read. The odometry thread samples its own copies, so it is not held up */
+        signalPlan.refreshAll();
+        /* Every reading is compensated to the same instant, and every IO drains the same odometry samples */
+        double now = LatencyCompensation.now();
+        OdometryThread odometryThread = OdometryThread.getInstance();
+        odometryThread.beginDrain();
+        for(SwerveModule mod : mSwerveMods){
+            mod.updateInputs(now);
+        }
+        gyroIO.updateInputs(gyroInputs, now);
+        odometryThread.endDrain();
+        for(SwerveModule mod : mSwerveMods){
+            moduleArrays.speedsMetersPerSecond[mod.moduleNumber] = mod.getSpeedMetersPerSecond();
+            moduleArrays.anglesRadians[mod.moduleNumber] = mod.getAngleRadians();
+        }
+        gyroRecorder.record(gyroInputs);
+        LoopProfiler.stop(LoopProfiler.Phase.SIGNAL_REFRESH, start);
+    }
+
+    /* Integrates the odometry samples of this loop's inputs, on the main thread so replays are deterministic */
+    private void updateOdometry(){
+        int sampleCount = gyroInputs.odometrySampleCount;
+        for(SwerveModule mod : mSwerveMods){
+            sampleCount = Math.min(sampleCount, mod.getOdometrySampleCount());
+        }
+        for(int i = 0; i < sampleCount; i++){
+            for(SwerveModule mod : mSwerveMods){
+                odometryDistances[mod.moduleNumber] = mod.getOdometryDistanceMeters(i);
+                odometryAngles[mod.moduleNumber] = mod.getOdometryAngleRadians(i);
+            }
+            odometryYawRadians = Math.toRadians(gyroInputs.odometryYawsDegrees[i]);
+            poseEstimator.update(gyroInputs.odometryTimestamps[i], odometryYawRadians, odometryDistances, odometryAngles);
+        }
+    }
+
+    public SignalPlan getSignalPlan() {
+        return signalPlan;
     }
 
     public void resetModulesToAbsolute(){
@@ -116,12 +399,23 @@ public class Swerve extends SubsystemBase {
 
     @Override
     public void periodic(){
-        swerveOdometry.update(getGyroYaw(), getModulePositions());
-
+        long start = LoopProfiler.start();
+        updateInputs();
+        double now = Timer.getFPGATimestamp();
         for(SwerveModule mod : mSwerveMods){
-            SmartDashboard.putNumber("Mod " + mod.moduleNumber + " CANcoder", mod.getCANcoder().getDegrees());
-            SmartDashboard.putNumber("Mod " + mod.moduleNumber + " Angle", mod.getPosition().angle.getDegrees());
-            SmartDashboard.putNumber("Mod " + mod.moduleNumber + " Velocity", mod.getState().speedMetersPerSecond);    
+            mod.updateSeeding(now);
+        }
+        updateOdometry();
+
+        /* Desired states are the ones commanded during the previous loop */
+        logger.record(moduleArrays, gyroInputs.yawDegrees,
+            poseEstimator.getEstimatedX(), poseEstimator.getEstimatedY(), poseEstimator.getEstimatedHeadingRadians(),
+            driveCompensation, now - lastPeriodicTime);
+        lastPeriodicTime = now;
+
+        if(poseSource != null){
+            poseSource.poll(now, poseMeasurementConsumer);
         }
+        LoopProfiler.stop(LoopProfiler.Phase.SWERVE_PERIODIC, start);
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+import frc.robot.OdometryThread;
+import frc.robot.SignalPlan;
+import frc.robot.SwerveModule;
+import frc.lib.util.ControlCoalescer;
+import frc.robot.Constants.Telemetry.Verbosity;
+
+import com.ctre.phoenix6.CANBus;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+/**
+ * Publishes drivetrain telemetry to NetworkTables. All publishers and buffers are created once,
+ * and every topic group is published at its own rate so telemetry stays out of the main loop budget.
+ */
+public class SwerveTelemetry extends SubsystemBase {
+    private final Swerve s_Swerve;
+    private Verbosity verbosity = Constants.Telemetry.verbosity;
+
+    /* Competition topics */
+    private final StructPublisher<Pose2d> posePublisher;
+    private final StructArrayPublisher<SwerveModuleState> moduleStatesPublisher;
+    private final IntegerArrayPublisher slipCountsPublisher;
+
+    /* Debug topics */
+    private final DoubleArrayPublisher cancoderPublisher;
+    private final DoublePublisher odometryFrequencyPublisher;
+    private final IntegerPublisher odometryFailuresPublisher;
+
+    /* CAN bus health and signal plan topics */
+    private final String canBus;
+    private final DoublePublisher busUtilizationPublisher;
+    private final IntegerPublisher busOffCountPublisher;
+    private final IntegerPublisher txFullCountPublisher;
+    private final IntegerPublisher receiveErrorPublisher;
+    private final IntegerPublisher transmitErrorPublisher;
+    private final IntegerPublisher controlWritesPublisher;
+    private final IntegerPublisher savedControlWritesPublisher;
+    private final StringArrayPublisher signalNamesPublisher;
+    private final DoubleArrayPublisher signalFrequenciesPublisher;
+    private final DoubleArrayPublisher signalAgesPublisher;
+
+    private final SwerveModuleState[] moduleStates;
+    private final long[] slipCounts;
+    private final double[] cancoderDegrees;
+    private final double[] signalFrequencies;
+    private final double[] signalAges;
+
+    private final RateLimit poseRate = new RateLimit(Constants.Telemetry.posePeriod);
+    private final RateLimit moduleStatesRate = new RateLimit(Constants.Telemetry.moduleStatesPeriod);
+    private final RateLimit debugRate = new RateLimit(Constants.Telemetry.debugPeriod);
+    private final RateLimit canRate = new RateLimit(Constants.Signals.publishPeriod);
+
+    public SwerveTelemetry(Swerve s_Swerve) {
+        this.s_Swerve = s_Swerve;
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("Swerve");
+        posePublisher = table.getStructTopic("Pose", Pose2d.struct).publish();
+        moduleStatesPublisher = table.getStructArrayTopic("ModuleStates", SwerveModuleState.struct).publish();
+        slipCountsPublisher = table.getIntegerArrayTopic("SlipCounts").publish();
+        cancoderPublisher = table.getDoubleArrayTopic("CANcoders").publish();
+        odometryFrequencyPublisher = table.getDoubleTopic("OdometryFrequency").publish();
+        odometryFailuresPublisher = table.getIntegerTopic("OdometryFailedSamples").publish();
+
+        moduleStates = Swerve.newModuleStates(s_Swerve.mSwerveMods.length);
+        slipCounts = new long[s_Swerve.mSwerveMods.length];
+        cancoderDegrees = new double[s_Swerve.mSwerveMods.length];
+
+        canBus = Constants.Swerve.canBus;
+        NetworkTable canTable = NetworkTableInstance.getDefault().getTable("CAN");
+        busUtilizationPublisher = canTable.getDoubleTopic("BusUtilization").publish();
+        busOffCountPublisher = canTable.getIntegerTopic("BusOffCount").publish();
+        txFullCountPublisher = canTable.getIntegerTopic("TxFullCount").publish();
+        receiveErrorPublisher = canTable.getIntegerTopic("ReceiveErrorCount").publish();
+        transmitErrorPublisher = canTable.getIntegerTopic("TransmitErrorCount").publish();
+        controlWritesPublisher = canTable.getIntegerTopic("ControlWrites").publish();
+        savedControlWritesPublisher = canTable.getIntegerTopic("SavedControlWrites").publish();
+        signalNamesPublisher = canTable.getStringArrayTopic("SignalNames").publish();
+        signalFrequenciesPublisher = canTable.getDoubleArrayTopic("SignalFrequencies").publish();
+        signalAgesPublisher = canTable.getDoubleArrayTopic("SignalAges").publish();
+
+        /* Signal names never change, so they are published once and index the frequency and age arrays */
+        SignalPlan signalPlan = s_Swerve.getSignalPlan();
+        String[] signalNames = new String[signalPlan.size()];
+        signalFrequencies = new double[signalPlan.size()];
+        signalAges = new double[signalPlan.size()];
+        for(int i = 0; i < signalPlan.size(); i++){
+            signalNames[i] = signalPlan.getName(i);
+            signalFrequencies[i] = signalPlan.getAppliedFrequency(i);
+        }
+        signalNamesPublisher.set(signalNames);
+        signalFrequenciesPublisher.set(signalFrequencies);
+    }
+
+    public void setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+    }
+
+    @Override
+    public void periodic() {
+        double now = Timer.getFPGATimestamp();
+
+        if(poseRate.ready(now)){
+            posePublisher.set(s_Swerve.getPose());
+        }
+
+        if(moduleStatesRate.ready(now)){
+            moduleStatesPublisher.set(s_Swerve.getModuleStates(moduleStates));
+            for(SwerveModule mod : s_Swerve.mSwerveMods){
+                slipCounts[mod.moduleNumber] = s_Swerve.getSlipCount(mod.moduleNumber);
+            }
+            slipCountsPublisher.set(slipCounts);
+        }
+
+        if(canRate.ready(now)){
+            CANBus.CANBusStatus busStatus = CANBus.getStatus(canBus);
+            busUtilizationPublisher.set(busStatus.BusUtilization);
+            busOffCountPublisher.set(busStatus.BusOffCount);
+            txFullCountPublisher.set(busStatus.TxFullCount);
+            receiveErrorPublisher.set(busStatus.REC);
+            transmitErrorPublisher.set(busStatus.TEC);
+            controlWritesPublisher.set(ControlCoalescer.getTotalWrites());
+            savedControlWritesPublisher.set(ControlCoalescer.getTotalSavedWrites());
+
+            SignalPlan signalPlan = s_Swerve.getSignalPlan();
+            for(int i = 0; i < signalAges.length; i++){
+                signalAges[i] = signalPlan.getAge(i);
+            }
+            signalAgesPublisher.set(signalAges);
+        }
+
+        if(verbosity == Verbosity.DEBUG && debugRate.ready(now)){
+            for(SwerveModule mod : s_Swerve.mSwerveMods){
+                cancoderDegrees[mod.moduleNumber] = mod.getCANcoder().getDegrees();
+            }
+            cancoderPublisher.set(cancoderDegrees);
+
+            double samplePeriod = OdometryThread.getInstance().getLastSamplePeriod();
+            odometryFrequencyPublisher.set(samplePeriod > 0.0 ? 1.0 / samplePeriod : 0.0);
+            odometryFailuresPublisher.set(OdometryThread.getInstance().getFailedSamples());
+        }
+    }
+
+    /* Limits how often a group of topics is published */
+    private static class RateLimit {
+        private final double period;
+        private double nextPublish = 0.0;
+
+        RateLimit(double period) {
+            this.period = period;
+        }
+
+        boolean ready(double now) {
+            if(now < nextPublish){
+                return false;
+            }
+            nextPublish = now + period;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package frc.lib.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+class RobustSwerveOdometryTest {
+    private static final double dt = 0.02;
+
+    private final Translation2d[] moduleLocations = {
+        new Translation2d(0.3, 0.3),
+        new Translation2d(0.3, -0.3),
+        new Translation2d(-0.3, 0.3),
+        new Translation2d(-0.3, -0.3)
+    };
+
+    @Test
+    void onlyTheSlippingModuleIsRejected() {
+        SwerveModulePosition[] start = new SwerveModulePosition[moduleLocations.length];
+        for(int i = 0; i < start.length; i++){
+            start[i] = new SwerveModulePosition();
+        }
+        RobustSwerveOdometry odometry = new RobustSwerveOdometry(moduleLocations, new Rotation2d(), start, new Pose2d());
+        odometry.setSlipRejection(true, 0.5, 0.1);
+
+        /* Every wheel drives straight ahead at 2 m/s, except the first, which spins three times as far */
+        double[] distances = new double[moduleLocations.length];
+        double[] angles = new double[moduleLocations.length];
+        odometry.update(0.0, 0.0, distances, angles);
+        for(int step = 1; step <= 10; step++){
+            for(int i = 0; i < distances.length; i++){
+                distances[i] += (i == 0 ? 3.0 : 1.0) * 2.0 * dt;
+            }
+            odometry.update(step * dt, 0.0, distances, angles);
+        }
+
+        assertEquals(10, odometry.getSlipCount(0), "Slipping module was not rejected every sample");
+        for(int i = 1; i < moduleLocations.length; i++){
+            assertEquals(0, odometry.getSlipCount(i), "Healthy module " + i + " was rejected with the slipping one");
+            assertEquals(1.0, odometry.getWeight(i), "Healthy module " + i + " was down-weighted");
+        }
+        assertEquals(0.4, odometry.getX(), 0.01, "Slip leaked into the pose");
+    }
+}
@@ -0,0 +1,53 @@
+package frc.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.ctre.phoenix6.controls.DutyCycleOut;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+
+class ControlCoalescerTest {
+    private static final double epsilon = 1e-3;
+
+    private final DutyCycleOut dutyCycle = new DutyCycleOut(0);
+    private final VelocityVoltage velocity = new VelocityVoltage(0);
+
+    @Test
+    void unchangedSetpointIsSkippedUntilTheKeepAlive() {
+        ControlCoalescer coalescer = new ControlCoalescer(epsilon, 2);
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "First request was not sent");
+        assertFalse(coalescer.shouldWrite(dutyCycle, 0.5), "Unchanged request was sent again on the next loop");
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "Unchanged request was not refreshed on its 2nd loop");
+        assertFalse(coalescer.shouldWrite(dutyCycle, 0.5), "Refreshed request was sent again on the next loop");
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "Unchanged request was not refreshed again");
+    }
+
+    @Test
+    void keepAliveOfOneSendsEveryCall() {
+        ControlCoalescer coalescer = new ControlCoalescer(epsilon, 1);
+        for(int i = 0; i < 5; i++){
+            assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "Request was skipped on call " + i);
+        }
+    }
+
+    @Test
+    void changesAreSentImmediately() {
+        ControlCoalescer coalescer = new ControlCoalescer(epsilon, 10);
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "First request was not sent");
+        assertFalse(coalescer.shouldWrite(dutyCycle, 0.5 + epsilon / 2), "Change within the epsilon was sent");
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.6), "Setpoint change was skipped");
+        assertTrue(coalescer.shouldWrite(velocity, 0.6), "Change of request was skipped");
+        assertTrue(coalescer.shouldWrite(velocity, 0.6, 1.0), "Feedforward change was skipped");
+        assertFalse(coalescer.shouldWrite(velocity, 0.6, 1.0), "Unchanged request was sent again");
+    }
+
+    @Test
+    void invalidateSendsTheNextRequest() {
+        ControlCoalescer coalescer = new ControlCoalescer(epsilon, 10);
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "First request was not sent");
+        coalescer.invalidate();
+        assertTrue(coalescer.shouldWrite(dutyCycle, 0.5), "Request after invalidate was skipped");
+    }
+}
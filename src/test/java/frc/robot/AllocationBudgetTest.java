@@ -0,0 +1,266 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.controller.HolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.lib.util.SwerveModuleConstants;
+import frc.robot.autos.AutoTrajectories;
+import frc.robot.autos.exampleAuto;
+import frc.robot.commands.TeleopSwerve;
+import frc.robot.io.GyroIO;
+import frc.robot.io.ModuleIO;
+import frc.robot.subsystems.Swerve;
+
+/**
+ * Runs the control loop paths thousands of times and measures the bytes each loop allocates on the main thread
+ * with {@link ThreadMXBean}, so allocations that creep into the loop fail here instead of showing up as GC
+ * pauses during a match. Every path is warmed up first so the JIT has compiled it, as it would have been by the
+ * middle of a match, and simulated time advances one robot period between loops, outside of the measurement.
+ *
+ * <p>The drivetrain runs on scripted IOs that drive every module forward and turn the gyro, so odometry and the
+ * pose estimate change every loop without the allocations of a physics model, which the robot does not run.
+ */
+class AllocationBudgetTest {
+    private static final int warmupLoops = 20_000;
+    private static final int measuredLoops = 5_000;
+
+    private static final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long threadId = Thread.currentThread().getId();
+    /* Whatever reading the counter itself allocates */
+    private static long overhead;
+
+    private static Swerve swerve;
+
+    /* Drives the wheel forward at a constant speed at a fixed module angle, with a fresh absolute reading every loop */
+    private static class ScriptedModuleIO implements ModuleIO {
+        private final double angleRotations;
+        private final double angleOffsetRotations;
+        private double drivePositionRotations = 0.0;
+        private double absoluteTimestamp = 0.0;
+
+        ScriptedModuleIO(SwerveModuleConstants moduleConstants, double angleRotations) {
+            this.angleRotations = angleRotations;
+            angleOffsetRotations = moduleConstants.angleOffset.getRotations();
+        }
+
+        @Override
+        public void updateInputs(ModuleIOInputs inputs, double nowSeconds) {
+            drivePositionRotations += 0.05;
+            absoluteTimestamp += TimedRobot.kDefaultPeriod;
+            inputs.drivePositionRotations = drivePositionRotations;
+            inputs.driveVelocityRotationsPerSecond = 0.05 / TimedRobot.kDefaultPeriod;
+            inputs.anglePositionRotations = angleRotations;
+            inputs.absolutePositionRotations = angleRotations + angleOffsetRotations;
+            inputs.absolutePositionValid = true;
+            inputs.absolutePositionTimestampSeconds = absoluteTimestamp;
+            inputs.odometrySampleCount = 1;
+            inputs.odometryDrivePositionsRotations[0] = drivePositionRotations;
+            inputs.odometryAnglePositionsRotations[0] = angleRotations;
+        }
+
+        @Override
+        public void setAnglePosition(double rotations) {}
+
+        @Override
+        public void setDriveDutyCycle(double output) {}
+
+        @Override
+        public void setDriveVelocity(double rotationsPerSecond, double feedforwardVolts) {}
+
+        @Override
+        public void setNeutral() {}
+
+        @Override
+        public void resetAnglePosition(double rotations) {}
+    }
+
+    /* Turns at a constant rate, with one odometry sample per loop */
+    private static class ScriptedGyroIO implements GyroIO {
+        private double yawDegrees = 0.0;
+
+        @Override
+        public void updateInputs(GyroIOInputs inputs, double nowSeconds) {
+            yawDegrees += 0.5;
+            inputs.yawDegrees = yawDegrees;
+            inputs.odometrySampleCount = 1;
+            inputs.odometryTimestamps[0] = Timer.getFPGATimestamp();
+            inputs.odometryYawsDegrees[0] = yawDegrees;
+        }
+    }
+
+    @BeforeAll
+    static void startRobot() throws IOException {
+        assertTrue(threadBean.isThreadAllocatedMemorySupported(), "This JVM cannot measure per thread allocations");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        assertTrue(HAL.initialize(500, 0), "Failed to initialize the HAL");
+        SimHooks.pauseTiming();
+        /* Keeps the recorded inputs out of the project directory */
+        DataLogManager.start(Files.createDirectories(Path.of("build", "logs")).toString());
+
+        int moduleCount = Constants.Swerve.modules.length;
+        ModuleIO[] moduleIOs = new ModuleIO[moduleCount];
+        for(int i = 0; i < moduleCount; i++){
+            moduleIOs[i] = new ScriptedModuleIO(Constants.Swerve.modules[i], 0.1 + 0.3 * i);
+        }
+        swerve = new Swerve(new ScriptedGyroIO(), moduleIOs);
+        /* Modules ignore desired states until they are seeded */
+        for(int i = 0; i <= Constants.Seeding.requiredSamples; i++){
+            swerve.periodic();
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+        }
+
+        Runnable empty = () -> {};
+        for(int i = 0; i < warmupLoops; i++){
+            measure(empty);
+        }
+        overhead = measure(empty);
+    }
+
+    @AfterAll
+    static void stopRobot() {
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void swervePeriodicDoesNotAllocate() {
+        assertWithinBudget("Swerve.periodic", averageBytes(swerve::periodic, () -> {}), 0.0);
+    }
+
+    @Test
+    void driveDoesNotAllocate() {
+        assertWithinBudget("Swerve.drive", averageBytes(() -> swerve.drive(1.5, -0.75, 1.0, true, true), swerve::periodic), 0.0);
+    }
+
+    @Test
+    void teleopDoesNotAllocate() {
+        TeleopSwerve teleop = new TeleopSwerve(swerve, () -> 0.5, () -> -0.25, () -> 0.3, () -> false);
+        assertWithinBudget("TeleopSwerve.execute", averageBytes(teleop::execute, swerve::periodic), 0.0);
+    }
+
+    /**
+     * WPILib's trajectory following allocates every step, in Trajectory.sample, HolonomicDriveController and
+     * SwerveDriveKinematics, and needs a Pose2d of the moving estimate. The budget is what those same calls allocate,
+     * measured here on the same trajectory, so the command and everything it calls on Swerve must add nothing.
+     */
+    @Test
+    void autoStepAllocatesNoMoreThanTheFollower() {
+        Trajectory trajectory = AutoTrajectories.load("exampleAuto");
+
+        Command auto = new exampleAuto(swerve, trajectory);
+        auto.initialize();
+        double autoBytes = averageBytes(auto::execute, () -> {
+            swerve.periodic();
+            if(auto.isFinished()){
+                auto.end(false);
+                auto.initialize();
+            }
+        });
+
+        /* SwerveControllerCommand.execute with exampleAuto's controllers and the default desired rotation */
+        TrajectoryFollower follower = new TrajectoryFollower(trajectory);
+        double followerBytes = averageBytes(follower::execute, () -> {
+            swerve.periodic();
+            follower.advance();
+        });
+
+        assertWithinBudget("exampleAuto.execute", autoBytes, followerBytes);
+    }
+
+    private static class TrajectoryFollower {
+        private final Trajectory trajectory;
+        private final HolonomicDriveController controller;
+        private double timeSeconds = 0.0;
+        /* Kept so the states escape, as they do into setModuleStates */
+        SwerveModuleState[] lastStates;
+
+        TrajectoryFollower(Trajectory trajectory) {
+            this.trajectory = trajectory;
+            ProfiledPIDController thetaController = new ProfiledPIDController(
+                Constants.AutoConstants.kPThetaController, 0, 0, Constants.AutoConstants.kThetaControllerConstraints);
+            thetaController.enableContinuousInput(-Math.PI, Math.PI);
+            controller = new HolonomicDriveController(
+                new PIDController(Constants.AutoConstants.kPXController, 0, 0),
+                new PIDController(Constants.AutoConstants.kPYController, 0, 0),
+                thetaController);
+            swerve.setPose(trajectory.getInitialPose());
+        }
+
+        void execute() {
+            Trajectory.State desiredState = trajectory.sample(timeSeconds);
+            List<Trajectory.State> states = trajectory.getStates();
+            ChassisSpeeds targetSpeeds = controller.calculate(
+                swerve.getPose(), desiredState, states.get(states.size() - 1).poseMeters.getRotation());
+            lastStates = Constants.Swerve.swerveKinematics.toSwerveModuleStates(targetSpeeds);
+        }
+
+        /* Restarts with a pose reset at the end, as the auto does */
+        void advance() {
+            timeSeconds += TimedRobot.kDefaultPeriod;
+            if(timeSeconds > trajectory.getTotalTimeSeconds()){
+                timeSeconds = 0.0;
+                swerve.setPose(trajectory.getInitialPose());
+            }
+        }
+    }
+
+    /* Runs the loop once and returns the bytes it allocated on this thread */
+    private static long measure(Runnable loop) {
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        loop.run();
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+        return Math.max(0, after - before - overhead);
+    }
+
+    /**
+     * @param loop The measured path
+     * @param between Runs after each loop, outside of the measurement, along with one period of simulated time
+     * @return Average allocation per loop: (in Bytes)
+     */
+    private static double averageBytes(Runnable loop, Runnable between) {
+        for(int i = 0; i < warmupLoops; i++){
+            loop.run();
+            between.run();
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+        }
+
+        long totalBytes = 0;
+        for(int i = 0; i < measuredLoops; i++){
+            totalBytes += measure(loop);
+            between.run();
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+        }
+        return (double) totalBytes / measuredLoops;
+    }
+
+    private static void assertWithinBudget(String name, double averageBytes, double budgetBytes) {
+        assertTrue(averageBytes <= budgetBytes,
+            name + " allocated " + averageBytes + " bytes per loop on average over " + measuredLoops
+            + " loops, more than its budget of " + budgetBytes);
+    }
+}
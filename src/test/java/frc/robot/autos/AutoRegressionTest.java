@@ -0,0 +1,163 @@
+package frc.robot.autos;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants;
+import frc.robot.RobotContainer;
+import frc.robot.SwerveModule;
+import frc.robot.subsystems.Swerve;
+
+/**
+ * Runs every routine registered in the {@link AutoRegistry} on the real Swerve subsystem with the simulated
+ * module IOs, in stepped time so a full auto takes a fraction of a second. Each routine must finish, stay
+ * near its trajectory, end near its end pose, and never request a module speed above the drivetrain's
+ * maximum before desaturation. The measured errors and peak speed of every routine are logged, and printed
+ * to the test output, whether or not it passes.
+ */
+class AutoRegressionTest {
+    /* Largest allowed distance from the reference trajectory at any time, and from its end pose (in Meters) */
+    private static final double maxTrackingError = 0.15;
+    private static final double maxFinalError = 0.10;
+    /* Extra time allowed after the reference trajectory ends (in Seconds) */
+    private static final double timeoutMargin = 2.0;
+    /* Time the default command gets to stop the robot between routines (in Seconds) */
+    private static final double settleTime = 1.0;
+    /* Real time allowed for the routines to be prepared and the modules seeded (in Seconds) */
+    private static final double preparationTimeout = 10.0;
+
+    private static RobotContainer container;
+
+    @BeforeAll
+    static void startRobot() throws IOException, InterruptedException {
+        assertTrue(HAL.initialize(500, 0), "Failed to initialize the HAL");
+        SimHooks.pauseTiming();
+        /* Keeps the recorded inputs out of the project directory */
+        DataLogManager.start(Files.createDirectories(Path.of("build", "logs")).toString());
+        container = new RobotContainer();
+
+        /* Disabled loops until the autos are built and the modules seeded, as before a match */
+        long deadline = System.nanoTime() + (long) (preparationTimeout * 1e9);
+        while(!container.getAutoRegistry().isReady() || !isSeeded(container.getSwerve())){
+            assertTrue(System.nanoTime() < deadline, "Routines were not prepared and seeded within " + preparationTimeout + " s");
+            step();
+            Thread.sleep((long) (TimedRobot.kDefaultPeriod * 1000));
+        }
+    }
+
+    @AfterAll
+    static void stopRobot() {
+        setAutonomousEnabled(false);
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+        SimHooks.resumeTiming();
+    }
+
+    @Test
+    void routinesFollowTheirTrajectories() {
+        AutoRegistry registry = container.getAutoRegistry();
+        assertTrue(registry.getRoutineCount() > 0, "No autonomous routines are registered");
+        for(int i = 0; i < registry.getRoutineCount(); i++){
+            runRoutine(registry, i);
+        }
+    }
+
+    private static void runRoutine(AutoRegistry registry, int index) {
+        String name = registry.getName(index);
+        Trajectory reference = reference(registry.getTrajectories(index));
+        Swerve swerve = container.getSwerve();
+        Command command = registry.get(index);
+
+        setAutonomousEnabled(true);
+        swerve.resetPeakRequestedSpeed();
+        command.schedule();
+
+        double period = TimedRobot.kDefaultPeriod;
+        double duration = 0.0;
+        double trackingError = 0.0;
+        boolean finished = false;
+        while(duration < reference.getTotalTimeSeconds() + timeoutMargin){
+            step();
+            duration += period;
+
+            Pose2d expected = reference.sample(Math.min(duration, reference.getTotalTimeSeconds())).poseMeters;
+            trackingError = Math.max(trackingError, swerve.getPose().getTranslation().getDistance(expected.getTranslation()));
+            if(!command.isScheduled()){
+                finished = true;
+                break;
+            }
+        }
+        command.cancel();
+
+        Pose2d end = reference.sample(reference.getTotalTimeSeconds()).poseMeters;
+        double finalError = swerve.getPose().getTranslation().getDistance(end.getTranslation());
+        double peakSpeed = swerve.getPeakRequestedSpeed();
+
+        /* The default command stops the robot before the next routine resets its pose */
+        for(double settled = 0.0; settled < settleTime; settled += period){
+            step();
+        }
+        setAutonomousEnabled(false);
+
+        /* Logged before asserting, so every routine's margins are visible even when one fails */
+        DataLogManager.log(String.format("%s: %s, tracking error %.3f m, final error %.3f m, peak module speed %.2f m/s",
+            name, finished ? "finished" : "timed out", trackingError, finalError, peakSpeed));
+        assertTrue(finished, name + " did not finish within " + timeoutMargin + " s of its trajectory");
+        assertTrue(trackingError <= maxTrackingError,
+            name + " strayed " + trackingError + " m from its trajectory, more than " + maxTrackingError + " m");
+        assertTrue(finalError <= maxFinalError,
+            name + " ended " + finalError + " m from its end pose, more than " + maxFinalError + " m");
+        assertTrue(peakSpeed <= Constants.Swerve.maxSpeed,
+            name + " requested " + peakSpeed + " m/s from a module, more than the max speed of " + Constants.Swerve.maxSpeed + " m/s");
+    }
+
+    /* The routine's trajectories one after another */
+    private static Trajectory reference(Trajectory[] trajectories) {
+        Trajectory reference = trajectories[0];
+        for(int i = 1; i < trajectories.length; i++){
+            reference = reference.concatenate(trajectories[i]);
+        }
+        return reference;
+    }
+
+    /* One robot loop as Robot.robotPeriodic runs it, then one period of simulated time */
+    private static void step() {
+        container.updateInputs();
+        CommandScheduler.getInstance().run();
+        container.robotPeriodic();
+        SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+
+    private static boolean isSeeded(Swerve swerve) {
+        for(SwerveModule mod : swerve.mSwerveMods){
+            if(!mod.isSeeded()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void setAutonomousEnabled(boolean enabled) {
+        DriverStationSim.setAutonomous(enabled);
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+    }
+}